@@ -0,0 +1,42 @@
+#!/usr/bin/env bash
+# Compares platform-thread and virtual-thread request handling under the same load.
+# Starts the packaged backend once per mode (in-memory H2 unless DB_URL is set),
+# seeds it through the bulk import, runs EndpointLoadTest and prints both result tables.
+#
+#   scripts/loadtest.sh                      # defaults below
+#   CONCURRENCY=800 DURATION=60s SEED=100000 scripts/loadtest.sh
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+CONCURRENCY=${CONCURRENCY:-400}
+WARMUP=${WARMUP:-10s}
+DURATION=${DURATION:-30s}
+SEED=${SEED:-20000}
+PORT=${PORT:-8080}
+OUT=${OUT:-target/loadtest-$(date +%Y%m%d-%H%M%S).jsonl}
+DB_URL=${DB_URL:-"jdbc:h2:mem:expenzor;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH"}
+
+./mvnw -q -B -DskipTests package
+./mvnw -q -B -Pjmh test-compile
+JAR=$(ls target/Expenzor-*.jar | grep -v original | head -1)
+
+for MODE in platform virtual; do
+  VIRTUAL=$([ "$MODE" = virtual ] && echo true || echo false)
+  DB_ARGS=()
+  if [[ "$DB_URL" == jdbc:h2:* ]]; then
+    DB_ARGS=(--spring.datasource.driver-class-name=org.h2.Driver --spring.jpa.database-platform=org.hibernate.dialect.H2Dialect --spring.datasource.username=sa)
+  fi
+  java -jar "$JAR" --server.port="$PORT" --spring.datasource.url="$DB_URL" "${DB_ARGS[@]}" \
+      --spring.threads.virtual.enabled="$VIRTUAL" > "target/loadtest-$MODE.log" 2>&1 &
+  APP=$!
+  trap 'kill $APP 2>/dev/null || true' EXIT
+  until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do sleep 1; done
+
+  ./mvnw -q -B -Pjmh exec:exec@loadtest -Dloadtest.args="-url=http://localhost:$PORT -label=$MODE \
+      -concurrency=$CONCURRENCY -warmup=$WARMUP -duration=$DURATION -seed=$SEED -out=$OUT"
+
+  kill $APP; wait $APP 2>/dev/null || true
+  # An in-memory database starts empty again; a real one already has the rows
+  [[ "$DB_URL" == jdbc:h2:mem:* ]] || SEED=0
+done
+echo "Both runs appended to $OUT"
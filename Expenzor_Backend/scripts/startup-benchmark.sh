@@ -0,0 +1,79 @@
+#!/usr/bin/env bash
+# Cold-start comparison of the plain jar and the fast-startup build (Spring AOT, CDS
+# archive and lazy initialization; see the fast-startup profile in pom.xml).
+# Starts each variant RUNS times, alternating, against a fresh in-memory H2 unless
+# DB_URL is set. Time-to-first-request runs from launching the JVM until
+# GET /api/expense/all answers 200; RSS is read right after that first request.
+# Prints the medians and appends every run as a JSON line under target/.
+#
+#   scripts/startup-benchmark.sh                 # defaults below
+#   RUNS=10 scripts/startup-benchmark.sh
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+RUNS=${RUNS:-5}
+PORT=${PORT:-8080}
+OUT=${OUT:-target/startup-$(date +%Y%m%d-%H%M%S).jsonl}
+DB_URL=${DB_URL:-"jdbc:h2:mem:expenzor;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH"}
+# The CDS archive is only valid for the JVM that trained it, which is the one Maven runs on
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+
+mkdir -p target
+# Build output (including the CDS training run) goes to target/startup-build.log
+./mvnw -q -B -DskipTests package > target/startup-build.log 2>&1
+JAR=$(cd target && ls Expenzor-*.jar | grep -v original | head -1)
+cp "target/$JAR" target/startup-default.jar
+./mvnw -q -B -DskipTests -Pfast-startup package >> target/startup-build.log 2>&1
+
+DB_ARGS=()
+if [[ "$DB_URL" == jdbc:h2:* ]]; then
+  DB_ARGS=(--spring.datasource.driver-class-name=org.h2.Driver --spring.jpa.database-platform=org.hibernate.dialect.H2Dialect --spring.datasource.username=sa)
+fi
+
+declare -A TTFR STARTED RSS
+
+# start <run> <variant> <working dir> <java args...>
+start() {
+  local run=$1 variant=$2 dir=$3
+  shift 3
+  local began app
+  began=$(date +%s%N)
+  (cd "$dir" && exec "$JAVA" "$@" --server.port="$PORT" --spring.datasource.url="$DB_URL" "${DB_ARGS[@]}") \
+      > "target/startup-$variant.log" 2>&1 &
+  app=$!
+  until curl -sf -o /dev/null "http://localhost:$PORT/api/expense/all"; do
+    if ! kill -0 "$app" 2>/dev/null; then
+      echo "$variant did not start, see target/startup-$variant.log" >&2
+      exit 1
+    fi
+    sleep 0.05
+  done
+  local ttfr=$(( ($(date +%s%N) - began) / 1000000 ))
+  local rss started
+  rss=$(ps -o rss= -p "$app" | tr -d ' ')
+  kill "$app"; wait "$app" 2>/dev/null || true
+  started=$(grep -ao 'Started ExpenzorApplication in [0-9.]*' "target/startup-$variant.log" | awk '{print $NF}')
+  TTFR[$variant]+="$ttfr "
+  STARTED[$variant]+="$started "
+  RSS[$variant]+="$rss "
+  echo "{\"variant\":\"$variant\",\"run\":$run,\"timeToFirstRequestMs\":$ttfr,\"startedSeconds\":$started,\"rssKb\":$rss}" >> "$OUT"
+  echo "$variant run $run: first request after ${ttfr} ms, started in ${started} s, RSS $((rss / 1024)) MB"
+}
+
+median() {
+  tr ' ' '\n' <<< "$1" | grep . | sort -g | awk '{v[NR] = $1} END {print (NR % 2) ? v[(NR + 1) / 2] : (v[NR / 2] + v[NR / 2 + 1]) / 2}'
+}
+
+for i in $(seq "$RUNS"); do
+  start "$i" default target -jar startup-default.jar
+  start "$i" fast-startup target/fast-startup -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true \
+      -Dspring.main.lazy-initialization=true -jar "$JAR"
+done
+
+echo
+printf '%-14s %24s %18s %12s\n' variant "time to first request" "started in" RSS
+for variant in default fast-startup; do
+  printf '%-14s %21s ms %16s s %9s MB\n' "$variant" "$(median "${TTFR[$variant]}")" \
+      "$(median "${STARTED[$variant]}")" "$(( $(median "${RSS[$variant]}" | cut -d. -f1) / 1024 ))"
+done
+echo "Medians of $RUNS runs; every run appended to $OUT"
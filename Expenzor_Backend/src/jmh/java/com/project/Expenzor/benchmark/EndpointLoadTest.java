@@ -0,0 +1,206 @@
+package com.project.Expenzor.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Closed-loop HTTP load generator for comparing the server's execution modes
+// (platform vs virtual request threads). Each of --concurrency clients sends one request
+// at a time, round-robin over the endpoints, for --duration after a --warmup; the
+// result is throughput, error count and p50/p95/p99/max latency per endpoint.
+// The server must already be running; scripts/loadtest.sh starts it in both modes.
+//
+//   --url=http://localhost:8080  --concurrency=200  --duration=30s  --warmup=10s
+//   --seed=20000       import this many synthetic expenses first (0 to skip)
+//   --label=virtual    name of the run in the output
+//   --out=target/loadtest.jsonl   one JSON line per endpoint is appended here
+//   --endpoints=/api/expense/all,/api/expense/dashboard
+public final class EndpointLoadTest {
+
+    private static final String DEFAULT_ENDPOINTS = String.join(",",
+            "/api/expense/all",
+            "/api/expense/by-date?date=2024-03-15",
+            "/api/expense/dashboard");
+
+    private EndpointLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String baseUrl = options.getOrDefault("url", "http://localhost:8080");
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "200"));
+        Duration warmup = Duration.parse("PT" + options.getOrDefault("warmup", "10s"));
+        Duration duration = Duration.parse("PT" + options.getOrDefault("duration", "30s"));
+        int seedRows = Integer.parseInt(options.getOrDefault("seed", "0"));
+        String label = options.getOrDefault("label", "run");
+        Path out = Path.of(options.getOrDefault("out", "target/loadtest.jsonl"));
+        List<String> endpoints = List.of(options.getOrDefault("endpoints", DEFAULT_ENDPOINTS).split(","));
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        if (seedRows > 0) {
+            seed(client, baseUrl, seedRows);
+        }
+
+        System.out.printf("%s: warming up for %s with %d clients%n", label, warmup, concurrency);
+        run(client, baseUrl, endpoints, concurrency, warmup);
+        System.out.printf("%s: measuring for %s%n", label, duration);
+        Map<String, Recorder> results = run(client, baseUrl, endpoints, concurrency, duration);
+
+        System.out.printf("%n%-10s %-40s %10s %8s %9s %9s %9s %9s%n",
+                "mode", "endpoint", "req/s", "errors", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        StringBuilder json = new StringBuilder();
+        for (Map.Entry<String, Recorder> entry : results.entrySet()) {
+            Recorder recorder = entry.getValue();
+            long[] sorted = recorder.sortedLatencies();
+            double throughput = sorted.length / (duration.toMillis() / 1000.0);
+            System.out.printf(Locale.ROOT, "%-10s %-40s %10.1f %8d %9.1f %9.1f %9.1f %9.1f%n",
+                    label, entry.getKey(), throughput, recorder.errors.get(),
+                    millis(percentile(sorted, 0.50)), millis(percentile(sorted, 0.95)),
+                    millis(percentile(sorted, 0.99)), millis(percentile(sorted, 1.0)));
+            json.append(String.format(Locale.ROOT,
+                    "{\"label\":\"%s\",\"endpoint\":\"%s\",\"concurrency\":%d,\"requestsPerSecond\":%.1f,"
+                            + "\"errors\":%d,\"p50Ms\":%.2f,\"p95Ms\":%.2f,\"p99Ms\":%.2f,\"maxMs\":%.2f}%n",
+                    label, entry.getKey(), concurrency, throughput, recorder.errors.get(),
+                    millis(percentile(sorted, 0.50)), millis(percentile(sorted, 0.95)),
+                    millis(percentile(sorted, 0.99)), millis(percentile(sorted, 1.0))));
+        }
+        if (out.getParent() != null) {
+            Files.createDirectories(out.getParent());
+        }
+        Files.writeString(out, json, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        System.out.println("Results appended to " + out);
+    }
+
+    private static Map<String, Recorder> run(HttpClient client, String baseUrl, List<String> endpoints,
+            int concurrency, Duration duration) throws InterruptedException {
+        Map<String, Recorder> recorders = new LinkedHashMap<>();
+        endpoints.forEach(endpoint -> recorders.put(endpoint, new Recorder()));
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                int offset = i;
+                clients.submit(() -> {
+                    for (int n = offset; System.nanoTime() < deadline; n++) {
+                        String endpoint = endpoints.get(n % endpoints.size());
+                        Recorder recorder = recorders.get(endpoint);
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + endpoint))
+                                .timeout(Duration.ofSeconds(60))
+                                .build();
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+                            try (InputStream body = response.body()) {
+                                body.transferTo(OutputStream.nullOutputStream()); // Whole payload counts toward latency
+                            }
+                            if (response.statusCode() >= 400) {
+                                recorder.errors.incrementAndGet();
+                                continue;
+                            }
+                            recorder.record(System.nanoTime() - start);
+                        } catch (IOException e) {
+                            recorder.errors.incrementAndGet();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                    }
+                });
+            }
+            clients.shutdown();
+            clients.awaitTermination(duration.toSeconds() + 120, TimeUnit.SECONDS);
+        }
+        return recorders;
+    }
+
+    // Sends synthetic expenses through the NDJSON bulk import
+    private static void seed(HttpClient client, String baseUrl, int rows) throws IOException, InterruptedException {
+        SplittableRandom random = new SplittableRandom(42);
+        StringBuilder body = new StringBuilder(rows * 100);
+        for (int i = 0; i < rows; i++) {
+            body.append(String.format(Locale.ROOT,
+                    "{\"description\":\"Expense #%d\",\"amount\":%s,\"category\":\"%s\",\"expenseDate\":\"%s\"}%n",
+                    i, SyntheticExpenses.amount(random).toPlainString(), SyntheticExpenses.category(random),
+                    SyntheticExpenses.date(random)));
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/expense/import?format=ndjson"))
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString(), StandardCharsets.UTF_8))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        System.out.println("Seeded " + rows + " rows: " + response.statusCode() + " " + response.body());
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            String[] pair = arg.replaceFirst("^-+", "").split("=", 2);
+            options.put(pair[0], pair.length > 1 ? pair[1] : "true");
+        }
+        return options;
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static final class Recorder {
+
+        private final List<long[]> chunks = new ArrayList<>();
+        private long[] current = new long[4096];
+        private int size;
+        private final AtomicLong errors = new AtomicLong();
+
+        synchronized void record(long nanos) {
+            if (size == current.length) {
+                chunks.add(current);
+                current = new long[current.length];
+                size = 0;
+            }
+            current[size++] = nanos;
+        }
+
+        synchronized long[] sortedLatencies() {
+            long[] all = new long[chunks.size() * current.length + size];
+            int position = 0;
+            for (long[] chunk : chunks) {
+                System.arraycopy(chunk, 0, all, position, chunk.length);
+                position += chunk.length;
+            }
+            System.arraycopy(current, 0, all, position, size);
+            Arrays.sort(all);
+            return all;
+        }
+    }
+}
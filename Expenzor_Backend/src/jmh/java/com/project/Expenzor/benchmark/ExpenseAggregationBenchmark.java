@@ -0,0 +1,189 @@
+package com.project.Expenzor.benchmark;
+
+import com.project.Expenzor.ExpenzorApplication;
+import com.project.Expenzor.analytics.ExpenseAnalyticsService;
+import com.project.Expenzor.dto.AnalyticsBucketDTO;
+import com.project.Expenzor.dto.CalendarHeatmapDTO;
+import com.project.Expenzor.dto.CategorySumDTO;
+import com.project.Expenzor.dto.DashboardDTO;
+import com.project.Expenzor.dto.MonthlyCategorySumDTO;
+import com.project.Expenzor.repository.ExpenseMonthlyRollupRepo;
+import com.project.Expenzor.service.ExpenseRollupService;
+import com.project.Expenzor.service.ExpenseService;
+import com.project.Expenzor.tenant.TenantContext;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Repository aggregation queries against an in-memory H2 seeded with synthetic expenses.
+// Compares the raw expenses-table aggregates (the queries the dashboard ran before the
+// rollups, kept here as the baseline) with the rollup-backed ones it uses now, and with
+// the in-process columnar analytics store.
+// Bigger tables: -p rows=10000000 -jvmArgsAppend -Xmx8g
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ExpenseAggregationBenchmark {
+
+    private static final int SEED_BATCH = 10_000;
+    private static final int YEAR = 2023;
+    private static final int MONTH = 6;
+    private static final String TENANT = TenantContext.DEFAULT_TENANT;
+    private static final LocalDate MONTH_START = LocalDate.of(YEAR, MONTH, 1);
+    private static final LocalDate MONTH_END = MONTH_START.withDayOfMonth(MONTH_START.lengthOfMonth());
+
+    // Baseline: aggregates over the expenses table itself
+    private static final String MONTH_TOTAL =
+            "SELECT SUM(e.amount) FROM Expense e WHERE e.tenantId = :tenantId AND e.expenseDate BETWEEN :start AND :end";
+    private static final String CATEGORY_WISE =
+            "SELECT new com.project.Expenzor.dto.CategorySumDTO(e.category, SUM(e.amount)) " +
+            "FROM Expense e WHERE e.tenantId = :tenantId AND e.expenseDate BETWEEN :start AND :end " +
+            "GROUP BY e.category";
+    private static final String OVERALL_TOTAL = "SELECT SUM(e.amount) FROM Expense e WHERE e.tenantId = :tenantId";
+    private static final String MONTHLY_CATEGORY_SUMS =
+            "SELECT new com.project.Expenzor.dto.MonthlyCategorySumDTO(YEAR(e.expenseDate), MONTH(e.expenseDate), e.category, SUM(e.amount), COUNT(e)) " +
+            "FROM Expense e WHERE e.tenantId = :tenantId AND e.expenseDate BETWEEN :start AND :end " +
+            "GROUP BY YEAR(e.expenseDate), MONTH(e.expenseDate), e.category";
+
+    @Param({"100000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private EntityManager entityManager;
+    private ExpenseMonthlyRollupRepo rollupRepo;
+    private ExpenseService expenseService;
+    private ExpenseAnalyticsService analyticsService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ExpenzorApplication.class)
+                .properties(
+                        "spring.main.web-application-type=none",
+                        "spring.main.banner-mode=off",
+                        "spring.datasource.url=jdbc:h2:mem:bench;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_ON_EXIT=FALSE",
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "spring.jpa.show-sql=false",
+                        "expenzor.rollup.reconcile-cron=-",
+                        "logging.level.root=WARN")
+                // An argument, since application.properties turns it off and outranks the defaults above
+                .run("--expenzor.analytics.enabled=true");
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+        rollupRepo = context.getBean(ExpenseMonthlyRollupRepo.class);
+        expenseService = context.getBean(ExpenseService.class);
+        analyticsService = context.getBean(ExpenseAnalyticsService.class);
+
+        seed(context.getBean(JdbcTemplate.class), rows);
+        context.getBean(ExpenseRollupService.class).rebuild();
+        analyticsService.loadAll(); // Seeded after startup, so load again
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private static void seed(JdbcTemplate jdbc, int rows) {
+        SplittableRandom random = new SplittableRandom(42);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.of(2025, 6, 1, 12, 0));
+        List<Object[]> batch = new ArrayList<>(SEED_BATCH);
+        for (int i = 1; i <= rows; i++) {
+            batch.add(new Object[] {(long) i, TENANT, "Expense #" + i, SyntheticExpenses.amount(random),
+                    SyntheticExpenses.category(random), Date.valueOf(SyntheticExpenses.date(random)), now, now});
+            if (batch.size() == SEED_BATCH || i == rows) {
+                jdbc.batchUpdate("INSERT INTO expenses (id, tenant_id, description, amount, category, expense_date, created_at, updated_at) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+
+    @Benchmark
+    public BigDecimal monthTotalFromExpenses() {
+        return entityManager.createQuery(MONTH_TOTAL, BigDecimal.class).setParameter("tenantId", TENANT)
+                .setParameter("start", MONTH_START).setParameter("end", MONTH_END).getSingleResult();
+    }
+
+    @Benchmark
+    public BigDecimal monthTotalFromRollup() {
+        return rollupRepo.sumAmountByMonthAndYear(TENANT, YEAR, MONTH);
+    }
+
+    @Benchmark
+    public List<CategorySumDTO> categoryWiseFromExpenses() {
+        return entityManager.createQuery(CATEGORY_WISE, CategorySumDTO.class).setParameter("tenantId", TENANT)
+                .setParameter("start", MONTH_START).setParameter("end", MONTH_END).getResultList();
+    }
+
+    @Benchmark
+    public List<CategorySumDTO> categoryWiseFromRollup() {
+        return rollupRepo.findCategoryWiseExpenditureByMonthAndYear(TENANT, YEAR, MONTH);
+    }
+
+    @Benchmark
+    public BigDecimal overallTotalFromExpenses() {
+        return entityManager.createQuery(OVERALL_TOTAL, BigDecimal.class).setParameter("tenantId", TENANT)
+                .getSingleResult();
+    }
+
+    @Benchmark
+    public BigDecimal overallTotalFromRollup() {
+        return rollupRepo.sumAllExpenseAmounts(TENANT);
+    }
+
+    @Benchmark
+    public List<MonthlyCategorySumDTO> twelveMonthRangeFromExpenses() {
+        return entityManager.createQuery(MONTHLY_CATEGORY_SUMS, MonthlyCategorySumDTO.class).setParameter("tenantId", TENANT)
+                .setParameter("start", LocalDate.of(YEAR, 1, 1)).setParameter("end", LocalDate.of(YEAR, 12, 31))
+                .getResultList();
+    }
+
+    @Benchmark
+    public List<MonthlyCategorySumDTO> twelveMonthRangeFromRollup() {
+        return rollupRepo.findBucketsBetween(TENANT, YEAR, 1, YEAR, 12);
+    }
+
+    @Benchmark
+    public CalendarHeatmapDTO calendarYear() {
+        return expenseService.getCalendarHeatmap(LocalDate.of(YEAR, 1, 1), LocalDate.of(YEAR, 12, 31));
+    }
+
+    @Benchmark
+    public List<AnalyticsBucketDTO> twelveMonthRangeFromAnalytics() {
+        return analyticsService.totalsByMonth(LocalDate.of(YEAR, 1, 1), LocalDate.of(YEAR, 12, 31));
+    }
+
+    @Benchmark
+    public List<AnalyticsBucketDTO> categoryWiseFromAnalytics() {
+        return analyticsService.totalsByCategory(LocalDate.of(YEAR, MONTH, 1), LocalDate.of(YEAR, MONTH, 30));
+    }
+
+    @Benchmark
+    public List<AnalyticsBucketDTO> dayOfWeekFromAnalytics() {
+        return analyticsService.totalsByDayOfWeek(null, null);
+    }
+
+    @Benchmark
+    public DashboardDTO dashboard() {
+        return expenseService.getDashboard(12);
+    }
+}
@@ -0,0 +1,131 @@
+package com.project.Expenzor.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.project.Expenzor.ExpenzorApplication;
+import com.project.Expenzor.dto.ExpenseField;
+import com.project.Expenzor.json.ExpenseRowWriter;
+import com.project.Expenzor.service.ExpenseService;
+import com.project.Expenzor.tenant.TenantContext;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// /all end to end minus the socket: read every expense of a tenant from an in-memory H2
+// and write the JSON array to a null stream. Compares the entity path (entities ->
+// ExpenseResponseDTO -> ObjectMapper) with the column projection written by
+// ExpenseRowWriter, in full and narrowed to ?fields=id,amount,category,expenseDate.
+// Scores are per row; run with the GC profiler for allocation per row (gc.alloc.rate.norm):
+//   mvn -Pjmh test-compile exec:exec@jmh -Djmh.args="ExpenseListRead -prof gc"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@OperationsPerInvocation(ExpenseListReadBenchmark.ROWS)
+public class ExpenseListReadBenchmark {
+
+    static final int ROWS = 50_000;
+
+    private static final int SEED_BATCH = 10_000;
+    private static final List<ExpenseField> LIST_FIELDS = ExpenseField.parse("id,amount,category,expenseDate");
+
+    private ConfigurableApplicationContext context;
+    private ExpenseService expenseService;
+    private ObjectMapper objectMapper;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ExpenzorApplication.class)
+                .properties(
+                        "spring.main.web-application-type=none",
+                        "spring.main.banner-mode=off",
+                        "spring.datasource.url=jdbc:h2:mem:bench;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_ON_EXIT=FALSE",
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "spring.jpa.show-sql=false",
+                        "expenzor.rollup.reconcile-cron=-",
+                        "logging.level.root=WARN")
+                .run();
+        expenseService = context.getBean(ExpenseService.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        seed(context.getBean(JdbcTemplate.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private static void seed(JdbcTemplate jdbc) {
+        SplittableRandom random = new SplittableRandom(42);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.of(2025, 6, 1, 12, 0));
+        List<Object[]> batch = new ArrayList<>(SEED_BATCH);
+        for (int i = 1; i <= ROWS; i++) {
+            batch.add(new Object[] {(long) i, TenantContext.DEFAULT_TENANT, "Expense #" + i, SyntheticExpenses.amount(random),
+                    SyntheticExpenses.category(random), Date.valueOf(SyntheticExpenses.date(random)), now, now});
+            if (batch.size() == SEED_BATCH || i == ROWS) {
+                jdbc.batchUpdate("INSERT INTO expenses (id, tenant_id, description, amount, category, expense_date, created_at, updated_at) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+
+    // Before: what /all did until the column projection
+    @Benchmark
+    public long entitiesToDtos() throws IOException {
+        try (SequenceWriter writer = objectMapper.writer().writeValuesAsArray(OutputStream.nullOutputStream())) {
+            return expenseService.streamExpenses(null, dto -> {
+                try {
+                    writer.write(dto);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    @Benchmark
+    public long columnsAllFields() throws IOException {
+        return columns(ExpenseField.ALL, false);
+    }
+
+    @Benchmark
+    public long columnsListFields() throws IOException {
+        return columns(LIST_FIELDS, false);
+    }
+
+    @Benchmark
+    public long columnsListFieldsCompact() throws IOException {
+        return columns(LIST_FIELDS, true);
+    }
+
+    private long columns(List<ExpenseField> fields, boolean compact) throws IOException {
+        try (ExpenseRowWriter writer = ExpenseRowWriter.array(objectMapper.getFactory(), OutputStream.nullOutputStream(),
+                fields, compact)) {
+            return expenseService.streamExpenseColumns(null, fields, row -> {
+                try {
+                    writer.write(row);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.project.Expenzor.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.project.Expenzor.dto.ExpenseField;
+import com.project.Expenzor.dto.ExpenseResponseDTO;
+import com.project.Expenzor.json.ExpenseRowWriter;
+import com.project.Expenzor.model.Expense;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// JSON serialization of large ExpenseResponseDTO lists (LocalDate/LocalDateTime/BigDecimal fields),
+// configured like Spring Boot's ObjectMapper
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExpenseSerializationBenchmark {
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<ExpenseResponseDTO> dtos;
+    private List<Object[]> rows; // The same data as ExpenseService.streamExpenseColumns hands out
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        dtos = new ArrayList<>(size);
+        rows = new ArrayList<>(size);
+        for (Expense expense : SyntheticExpenses.entities(size)) {
+            ExpenseResponseDTO dto = new ExpenseResponseDTO();
+            dto.setId(expense.getId());
+            dto.setDescription(expense.getDescription());
+            dto.setAmount(expense.getAmount());
+            dto.setCategory(expense.getCategory());
+            dto.setExpenseDate(expense.getExpenseDate());
+            dto.setCreatedAt(expense.getCreatedAt());
+            dto.setUpdatedAt(expense.getUpdatedAt());
+            dtos.add(dto);
+            rows.add(new Object[] {expense.getId(), expense.getDescription(), expense.getAmount(), expense.getCategory(),
+                    expense.getExpenseDate(), expense.getCreatedAt(), expense.getUpdatedAt()});
+        }
+    }
+
+    // What /all did before streaming: serialize the whole List in one go
+    @Benchmark
+    public byte[] wholeListToBytes() throws IOException {
+        return objectMapper.writeValueAsBytes(dtos);
+    }
+
+    // What /all does now: one element at a time through a SequenceWriter
+    @Benchmark
+    public void sequenceWriterArray() throws IOException {
+        try (SequenceWriter writer = objectMapper.writer().writeValuesAsArray(OutputStream.nullOutputStream())) {
+            for (ExpenseResponseDTO dto : dtos) {
+                writer.write(dto);
+            }
+        }
+    }
+
+    // /stream and /export: NDJSON
+    @Benchmark
+    public void sequenceWriterNdjson() throws IOException {
+        try (SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n")
+                .writeValues(OutputStream.nullOutputStream())) {
+            for (ExpenseResponseDTO dto : dtos) {
+                writer.write(dto);
+            }
+        }
+    }
+
+    // /all with the column projection: ExpenseRowWriter, no DTOs
+    @Benchmark
+    public void rowWriterArray() throws IOException {
+        try (ExpenseRowWriter writer = ExpenseRowWriter.array(objectMapper.getFactory(), OutputStream.nullOutputStream(),
+                ExpenseField.ALL, false)) {
+            for (Object[] row : rows) {
+                writer.write(row);
+            }
+        }
+    }
+}
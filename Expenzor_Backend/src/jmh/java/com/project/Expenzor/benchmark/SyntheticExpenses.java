@@ -0,0 +1,46 @@
+package com.project.Expenzor.benchmark;
+
+import com.project.Expenzor.model.Expense;
+import com.project.Expenzor.tenant.TenantContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Deterministic fake data shared by the benchmarks (fixed seed, so runs are comparable)
+public final class SyntheticExpenses {
+
+    public static final String[] CATEGORIES = {
+            "Food", "Travel", "Rent", "Utilities", "Shopping", "Health", "Entertainment", "Education"};
+    public static final LocalDate FIRST_DAY = LocalDate.of(2020, 1, 1);
+    public static final int DAYS = 6 * 365;
+
+    private SyntheticExpenses() {
+    }
+
+    public static List<Expense> entities(int count) {
+        SplittableRandom random = new SplittableRandom(42);
+        LocalDateTime now = LocalDateTime.of(2025, 6, 1, 12, 0);
+        List<Expense> expenses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            expenses.add(new Expense((long) i + 1, TenantContext.DEFAULT_TENANT, "Expense #" + i, amount(random), category(random),
+                    date(random), now.minusMinutes(i), now.minusMinutes(i)));
+        }
+        return expenses;
+    }
+
+    public static BigDecimal amount(SplittableRandom random) {
+        return BigDecimal.valueOf(random.nextLong(100, 500_000), 2); // 1.00 .. 5000.00
+    }
+
+    public static String category(SplittableRandom random) {
+        return CATEGORIES[random.nextInt(CATEGORIES.length)];
+    }
+
+    public static LocalDate date(SplittableRandom random) {
+        return FIRST_DAY.plusDays(random.nextInt(DAYS));
+    }
+}
@@ -0,0 +1,54 @@
+package com.project.Expenzor.service;
+
+import com.project.Expenzor.benchmark.SyntheticExpenses;
+import com.project.Expenzor.dto.ExpenseResponseDTO;
+import com.project.Expenzor.model.Expense;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Entity -> ExpenseResponseDTO mapping, as done by every list endpoint
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExpenseMappingBenchmark {
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    private List<Expense> expenses;
+
+    @Setup
+    public void setUp() {
+        expenses = SyntheticExpenses.entities(size);
+    }
+
+    @Benchmark
+    public List<ExpenseResponseDTO> streamCollectorsToList() {
+        return expenses.stream()
+                .map(ExpenseService::mapToExpenseResponseDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<ExpenseResponseDTO> streamToList() {
+        return expenses.stream()
+                .map(ExpenseService::mapToExpenseResponseDTO)
+                .toList();
+    }
+
+    @Benchmark
+    public List<ExpenseResponseDTO> presizedLoop() {
+        List<ExpenseResponseDTO> dtos = new ArrayList<>(expenses.size());
+        for (Expense expense : expenses) {
+            dtos.add(ExpenseService.mapToExpenseResponseDTO(expense));
+        }
+        return dtos;
+    }
+}
@@ -0,0 +1,34 @@
+package com.project.Expenzor.analytics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// /actuator/analytics: rows, tenants, dictionary size and approximate heap use of the
+// analytics store. The byte count is also a gauge, expenzor.analytics.memory.
+@Component
+@Endpoint(id = "analytics")
+@ConditionalOnProperty(name = "expenzor.analytics.enabled", havingValue = "true")
+public class AnalyticsEndpoint {
+
+    private final ExpenseAnalyticsService analyticsService;
+
+    public AnalyticsEndpoint(ExpenseAnalyticsService analyticsService, MeterRegistry meterRegistry) {
+        this.analyticsService = analyticsService;
+        Gauge.builder("expenzor.analytics.memory", analyticsService,
+                        service -> ((Number) service.footprint().get("totalBytes")).doubleValue())
+                .description("Approximate heap used by the in-process analytics store")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @ReadOperation
+    public Map<String, Object> footprint() {
+        return analyticsService.footprint();
+    }
+}
@@ -0,0 +1,302 @@
+package com.project.Expenzor.analytics;
+
+import com.project.Expenzor.dto.AnalyticsBucketDTO;
+import com.project.Expenzor.event.ExpenseChangedEvent;
+import com.project.Expenzor.event.ExpenseSnapshot;
+import com.project.Expenzor.event.ExpensesBulkChangedEvent;
+import com.project.Expenzor.tenant.TenantContext;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.Lock;
+
+// Optional in-process copy of every expense, column-wise (see ExpenseColumns), for the
+// interactive charts: sums by month, category, day of week or over a date range are
+// plain loops over primitive arrays instead of SQL round trips.
+// Loaded at startup, then kept current from the committed ExpenseChangedEvents that
+// ExpenseService publishes. A bulk import only marks the tenant stale; it is reloaded
+// from the database on its next read. Enable with expenzor.analytics.enabled=true.
+@Slf4j
+@Timed(value = "expenzor.service", histogram = true, percentiles = {0.5, 0.95, 0.99})
+@Service
+@ConditionalOnProperty(name = "expenzor.analytics.enabled", havingValue = "true")
+public class ExpenseAnalyticsService {
+
+    private static final String SELECT_COLUMNS = "SELECT tenant_id, id, amount, category, expense_date FROM expenses";
+    private static final int MAX_RANGE_MONTHS = 120; // Ten years, as in ExpenseService
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+    private final Map<String, ExpenseColumns> tenants = new ConcurrentHashMap<>();
+    // Category dictionary, shared by all tenants: code -> name and name -> code
+    private final List<String> categoryNames = new CopyOnWriteArrayList<>();
+    private final Map<String, Integer> categoryCodes = new ConcurrentHashMap<>();
+
+    public ExpenseAnalyticsService(JdbcTemplate jdbcTemplate, @Value("${expenzor.stream.fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = fetchSize;
+    }
+
+    // --- Loading ---
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAll() {
+        long start = System.nanoTime();
+        Map<String, ExpenseColumns> loaded = new HashMap<>();
+        query(SELECT_COLUMNS, rs -> append(loaded.computeIfAbsent(rs.getString(1), tenantId -> new ExpenseColumns()), rs));
+        // A tenant loaded lazily while this ran is at least as fresh: keep it
+        loaded.forEach(tenants::putIfAbsent);
+        log.info("Loaded {} expenses of {} tenants into the analytics store in {} ms",
+                loaded.values().stream().mapToInt(ExpenseColumns::size).sum(), loaded.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private ExpenseColumns load(String tenantId) {
+        ExpenseColumns columns = new ExpenseColumns();
+        query(SELECT_COLUMNS + " WHERE tenant_id = ?", rs -> append(columns, rs), tenantId);
+        return columns;
+    }
+
+    private void query(String sql, RowHandler handler, Object... args) {
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(sql);
+            statement.setFetchSize(fetchSize);
+            for (int i = 0; i < args.length; i++) {
+                statement.setObject(i + 1, args[i]);
+            }
+            return statement;
+        }, handler::handle);
+    }
+
+    private interface RowHandler {
+        void handle(ResultSet rs) throws SQLException;
+    }
+
+    private void append(ExpenseColumns columns, ResultSet rs) throws SQLException {
+        columns.upsert(rs.getLong(2), toMinorUnits(rs.getBigDecimal(3)), (int) rs.getDate(5).toLocalDate().toEpochDay(),
+                categoryCode(rs.getString(4)));
+    }
+
+    private ExpenseColumns columns(String tenantId) {
+        return tenants.computeIfAbsent(tenantId, this::load);
+    }
+
+    // --- Keeping up with writes ---
+
+    @TransactionalEventListener
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        ExpenseColumns columns = columns(event.getTenantId());
+        Lock lock = columns.lock.writeLock();
+        lock.lock();
+        try {
+            ExpenseSnapshot after = event.getAfter();
+            if (after == null) {
+                columns.remove(event.getExpenseId());
+            } else {
+                columns.upsert(event.getExpenseId(), toMinorUnits(after.getAmount()),
+                        (int) after.getExpenseDate().toEpochDay(), categoryCode(after.getCategory()));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExpensesBulkChanged(ExpensesBulkChangedEvent event) {
+        if (event.getTenantId() != null) { // A rollup rebuild (no tenant) doesn't change expenses
+            tenants.remove(event.getTenantId());
+        }
+    }
+
+    // --- Aggregations (current tenant; from/to inclusive, null = open) ---
+
+    public List<AnalyticsBucketDTO> totalsByMonth(LocalDate from, LocalDate to) {
+        ExpenseColumns columns = columns(TenantContext.current());
+        Lock lock = columns.lock.readLock();
+        lock.lock();
+        try {
+            checkRange(fromDay(from), toDay(to));
+            int[] dataRange = columns.dayRange();
+            if (dataRange == null && (from == null || to == null)) {
+                return List.of();
+            }
+            // Open ends are closed at the first/last expense. When that falls on the wrong
+            // side of the given end (from after the newest expense, to before the oldest)
+            // nothing can match: no months rather than an inverted range.
+            LocalDate rangeStart = from != null ? from : LocalDate.ofEpochDay(dataRange[0]);
+            LocalDate rangeEnd = to != null ? to : LocalDate.ofEpochDay(dataRange[1]);
+            if (rangeStart.isAfter(rangeEnd)) {
+                return List.of();
+            }
+            YearMonth first = YearMonth.from(rangeStart);
+            YearMonth last = YearMonth.from(rangeEnd);
+            // One table slot per day: keep it bounded
+            if (ChronoUnit.MONTHS.between(first, last) >= MAX_RANGE_MONTHS) {
+                throw new IllegalArgumentException("Month range is limited to " + MAX_RANGE_MONTHS + " months");
+            }
+            int fromDay = (int) (from != null ? from : first.atDay(1)).toEpochDay();
+            int toDay = (int) (to != null ? to : last.atEndOfMonth()).toEpochDay();
+
+            List<YearMonth> months = new ArrayList<>();
+            int[] monthOfDay = new int[toDay - fromDay + 1];
+            for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+                int start = Math.max(fromDay, (int) month.atDay(1).toEpochDay());
+                int end = Math.min(toDay, (int) month.atEndOfMonth().toEpochDay());
+                for (int day = start; day <= end; day++) {
+                    monthOfDay[day - fromDay] = months.size();
+                }
+                months.add(month);
+            }
+
+            long[][] result = columns.aggregate(ExpenseColumns.Grouping.MONTH, fromDay, toDay, months.size(), monthOfDay);
+            List<AnalyticsBucketDTO> buckets = new ArrayList<>(months.size());
+            for (int i = 0; i < months.size(); i++) {
+                buckets.add(bucket(months.get(i).toString(), result, i)); // Empty months included, as zero
+            }
+            return buckets;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<AnalyticsBucketDTO> totalsByCategory(LocalDate from, LocalDate to) {
+        ExpenseColumns columns = columns(TenantContext.current());
+        Lock lock = columns.lock.readLock();
+        lock.lock();
+        try {
+            int fromDay = fromDay(from);
+            int toDay = toDay(to);
+            checkRange(fromDay, toDay);
+            // Every code in the columns was assigned before its row was written, so it is below this size
+            int categoryCount = categoryNames.size();
+            long[][] result = columns.aggregate(ExpenseColumns.Grouping.CATEGORY, fromDay, toDay, categoryCount, null);
+            List<AnalyticsBucketDTO> buckets = new ArrayList<>();
+            for (int code = 0; code < categoryCount; code++) {
+                if (result[1][code] > 0) {
+                    buckets.add(bucket(categoryNames.get(code), result, code));
+                }
+            }
+            return buckets;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<AnalyticsBucketDTO> totalsByDayOfWeek(LocalDate from, LocalDate to) {
+        ExpenseColumns columns = columns(TenantContext.current());
+        Lock lock = columns.lock.readLock();
+        lock.lock();
+        try {
+            int fromDay = fromDay(from);
+            int toDay = toDay(to);
+            checkRange(fromDay, toDay);
+            long[][] result = columns.aggregate(ExpenseColumns.Grouping.DAY_OF_WEEK, fromDay, toDay, 7, null);
+            List<AnalyticsBucketDTO> buckets = new ArrayList<>(7);
+            for (DayOfWeek dayOfWeek : DayOfWeek.values()) { // MONDAY = 0, as in ExpenseColumns
+                buckets.add(bucket(dayOfWeek.name(), result, dayOfWeek.ordinal()));
+            }
+            return buckets;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public AnalyticsBucketDTO total(LocalDate from, LocalDate to) {
+        ExpenseColumns columns = columns(TenantContext.current());
+        Lock lock = columns.lock.readLock();
+        lock.lock();
+        try {
+            int fromDay = fromDay(from);
+            int toDay = toDay(to);
+            checkRange(fromDay, toDay);
+            return bucket("total", columns.aggregate(ExpenseColumns.Grouping.TOTAL, fromDay, toDay, 1, null), 0);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // --- Footprint (actuator) ---
+
+    public Map<String, Object> footprint() {
+        long rows = 0;
+        long bytes = 0;
+        for (ExpenseColumns columns : tenants.values()) {
+            Lock lock = columns.lock.readLock();
+            lock.lock();
+            try {
+                rows += columns.size();
+                bytes += columns.footprintBytes();
+            } finally {
+                lock.unlock();
+            }
+        }
+        long dictionaryBytes = categoryNames.stream().mapToLong(name -> 40L + 2L * name.length()).sum();
+        Map<String, Object> footprint = new HashMap<>();
+        footprint.put("tenants", tenants.size());
+        footprint.put("rows", rows);
+        footprint.put("categories", categoryNames.size());
+        footprint.put("columnBytes", bytes);
+        footprint.put("dictionaryBytes", dictionaryBytes);
+        footprint.put("totalBytes", bytes + dictionaryBytes);
+        return footprint;
+    }
+
+    // --- Helpers ---
+
+    private int categoryCode(String category) {
+        Integer code = categoryCodes.get(category);
+        if (code != null) {
+            return code;
+        }
+        synchronized (categoryNames) {
+            return categoryCodes.computeIfAbsent(category, name -> {
+                categoryNames.add(name);
+                return categoryNames.size() - 1;
+            });
+        }
+    }
+
+    // NUMERIC(10, 2) -> minor units; the database rounds to two places the same way
+    private static long toMinorUnits(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static AnalyticsBucketDTO bucket(String key, long[][] result, int index) {
+        return new AnalyticsBucketDTO(key, BigDecimal.valueOf(result[0][index], 2), result[1][index]);
+    }
+
+    private static int fromDay(LocalDate from) {
+        return from != null ? (int) from.toEpochDay() : Integer.MIN_VALUE;
+    }
+
+    private static int toDay(LocalDate to) {
+        return to != null ? (int) to.toEpochDay() : Integer.MAX_VALUE;
+    }
+
+    private static void checkRange(int fromDay, int toDay) {
+        if (fromDay > toDay) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.project.Expenzor.analytics;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+// One tenant's expenses, stored column-wise in primitive arrays: amount in minor
+// units (paise/cents), expense date as epoch-day, category as a dictionary code.
+// Row order means nothing; a delete moves the last row into the gap.
+// Writers take the write lock, aggregations the read lock (see ExpenseAnalyticsService).
+final class ExpenseColumns {
+
+    // Rows per parallel task; below two chunks a scan runs on the calling thread
+    static final int CHUNK_ROWS = 1 << 15;
+
+    // 1970-01-01 was a Thursday: (epochDay + 3) mod 7 gives Monday = 0 .. Sunday = 6
+    private static final int EPOCH_DAY_OF_WEEK_OFFSET = 3;
+
+    enum Grouping { TOTAL, CATEGORY, MONTH, DAY_OF_WEEK }
+
+    final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long[] ids = new long[16];
+    private long[] amounts = new long[16];
+    private int[] days = new int[16];
+    private int[] categories = new int[16];
+    private int size;
+    private final Map<Long, Integer> rowById = new HashMap<>();
+
+    int size() {
+        return size;
+    }
+
+    void upsert(long id, long amountMinor, int epochDay, int category) {
+        Integer row = rowById.get(id);
+        if (row == null) {
+            if (size == ids.length) {
+                grow();
+            }
+            row = size++;
+            rowById.put(id, row);
+            ids[row] = id;
+        }
+        amounts[row] = amountMinor;
+        days[row] = epochDay;
+        categories[row] = category;
+    }
+
+    boolean remove(long id) {
+        Integer row = rowById.remove(id);
+        if (row == null) {
+            return false;
+        }
+        int last = --size;
+        if (row != last) {
+            ids[row] = ids[last];
+            amounts[row] = amounts[last];
+            days[row] = days[last];
+            categories[row] = categories[last];
+            rowById.put(ids[row], row);
+        }
+        return true;
+    }
+
+    private void grow() {
+        int capacity = ids.length + (ids.length >> 1);
+        ids = Arrays.copyOf(ids, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+        days = Arrays.copyOf(days, capacity);
+        categories = Arrays.copyOf(categories, capacity);
+    }
+
+    // Earliest and latest epoch-day, or null when empty
+    int[] dayRange() {
+        if (size == 0) {
+            return null;
+        }
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            min = Math.min(min, days[i]);
+            max = Math.max(max, days[i]);
+        }
+        return new int[] {min, max};
+    }
+
+    // Sums and counts of rows with fromDay <= day <= toDay, per key. keyCount is the
+    // number of keys: 1 for TOTAL, the dictionary size for CATEGORY, 7 for DAY_OF_WEEK,
+    // and for MONTH the number of months covered by monthOfDay, which maps
+    // (day - fromDay) to a month index. Result: [sums, counts].
+    long[][] aggregate(Grouping grouping, int fromDay, int toDay, int keyCount, int[] monthOfDay) {
+        int chunks = (size + CHUNK_ROWS - 1) / CHUNK_ROWS;
+        if (chunks < 2) {
+            long[][] result = {new long[keyCount], new long[keyCount]};
+            scan(grouping, fromDay, toDay, monthOfDay, 0, size, result[0], result[1]);
+            return result;
+        }
+        return IntStream.range(0, chunks).parallel()
+                .mapToObj(chunk -> {
+                    long[][] partial = {new long[keyCount], new long[keyCount]};
+                    scan(grouping, fromDay, toDay, monthOfDay, chunk * CHUNK_ROWS,
+                            Math.min(size, (chunk + 1) * CHUNK_ROWS), partial[0], partial[1]);
+                    return partial;
+                })
+                .reduce((a, b) -> {
+                    for (int k = 0; k < keyCount; k++) {
+                        a[0][k] += b[0][k];
+                        a[1][k] += b[1][k];
+                    }
+                    return a;
+                })
+                .orElseThrow();
+    }
+
+    // One tight loop per grouping, so the JIT sees a single key computation per loop
+    private void scan(Grouping grouping, int fromDay, int toDay, int[] monthOfDay, int start, int end,
+            long[] sums, long[] counts) {
+        switch (grouping) {
+            case TOTAL -> {
+                for (int i = start; i < end; i++) {
+                    int day = days[i];
+                    if (day >= fromDay && day <= toDay) {
+                        sums[0] += amounts[i];
+                        counts[0]++;
+                    }
+                }
+            }
+            case CATEGORY -> {
+                for (int i = start; i < end; i++) {
+                    int day = days[i];
+                    if (day >= fromDay && day <= toDay) {
+                        sums[categories[i]] += amounts[i];
+                        counts[categories[i]]++;
+                    }
+                }
+            }
+            case MONTH -> {
+                for (int i = start; i < end; i++) {
+                    int day = days[i];
+                    if (day >= fromDay && day <= toDay) {
+                        int month = monthOfDay[day - fromDay];
+                        sums[month] += amounts[i];
+                        counts[month]++;
+                    }
+                }
+            }
+            case DAY_OF_WEEK -> {
+                for (int i = start; i < end; i++) {
+                    int day = days[i];
+                    if (day >= fromDay && day <= toDay) {
+                        int dayOfWeek = Math.floorMod(day + EPOCH_DAY_OF_WEEK_OFFSET, 7);
+                        sums[dayOfWeek] += amounts[i];
+                        counts[dayOfWeek]++;
+                    }
+                }
+            }
+        }
+    }
+
+    // Approximate heap use: the four arrays at their current capacity plus the
+    // id -> row index (a HashMap node with boxed Long and Integer is ~64 bytes)
+    long footprintBytes() {
+        long arrays = (long) ids.length * Long.BYTES + (long) amounts.length * Long.BYTES
+                + (long) days.length * Integer.BYTES + (long) categories.length * Integer.BYTES;
+        return arrays + (long) rowById.size() * 64;
+    }
+}
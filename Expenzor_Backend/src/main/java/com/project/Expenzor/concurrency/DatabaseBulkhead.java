@@ -0,0 +1,177 @@
+package com.project.Expenzor.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Caps how many threads can be doing database work at once. With virtual threads
+// (spring.threads.virtual.enabled=true) every request gets its own thread, so without
+// this a burst turns into thousands of threads queued inside Hikari's getConnection.
+// Callers wait here instead, for at most max-wait, and then get a 503.
+//
+// The permit is taken on the way into a service method (or a repository called from
+// anywhere else) and held until the outermost call returns, so a thread that already
+// has a transaction open never waits for a second permit. It runs inside the cache
+// interceptor (cache hits skip it) and outside the transaction interceptor.
+@Aspect
+@Component
+@Order(0)
+public class DatabaseBulkhead {
+
+    private final Semaphore permits;
+    private final long maxWaitNanos;
+    private final boolean enabled;
+    private final ThreadLocal<int[]> depth = ThreadLocal.withInitial(() -> new int[1]);
+    private final Timer waitTimer;
+    private final Counter rejected;
+
+    public DatabaseBulkhead(MeterRegistry meterRegistry,
+            @Value("${expenzor.bulkhead.enabled:true}") boolean enabled,
+            @Value("${expenzor.bulkhead.max-concurrent:${spring.datasource.hikari.maximum-pool-size:10}}") int maxConcurrent,
+            @Value("${expenzor.bulkhead.max-wait:2s}") Duration maxWait) {
+        this.enabled = enabled;
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxWaitNanos = maxWait.toNanos();
+        this.waitTimer = Timer.builder("expenzor.bulkhead.wait")
+                .description("Time spent waiting for a database bulkhead permit")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("expenzor.bulkhead.rejected")
+                .description("Calls turned away because no permit freed up within max-wait")
+                .register(meterRegistry);
+        Gauge.builder("expenzor.bulkhead.available", permits, Semaphore::availablePermits)
+                .description("Free database bulkhead permits")
+                .register(meterRegistry);
+    }
+
+    // For StreamingResponseBody handlers: by the time the body runs on its async thread
+    // the 200 has already been sent, so take the permit up front in the handler (where a
+    // BulkheadFullException still becomes a 503) and hand it to the body. If the request
+    // ends (client gone, timeout, rejected task) before the body ever starts, the async
+    // completion callback gives the permit back instead.
+    public Permit reserve() throws InterruptedException {
+        if (!enabled) {
+            return new Permit(false);
+        }
+        acquire();
+        Permit permit = new Permit(true);
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            WebAsyncUtils.getAsyncManager(attributes.getRequest()).registerCallableInterceptor(permit,
+                    new CallableProcessingInterceptor() {
+                        @Override
+                        public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) {
+                            permit.abandon();
+                        }
+                    });
+        }
+        return permit;
+    }
+
+    @Around("execution(public * com.project.Expenzor.service.Expense*Service.*(..))"
+            + " || execution(* com.project.Expenzor.repository.*Repo.*(..))")
+    public Object guard(ProceedingJoinPoint joinPoint) throws Throwable {
+        int[] callDepth = depth.get();
+        if (!enabled || callDepth[0] > 0) {
+            return enter(joinPoint, callDepth);
+        }
+
+        acquire();
+        try {
+            return enter(joinPoint, callDepth);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void acquire() throws InterruptedException {
+        long start = System.nanoTime();
+        boolean acquired = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (!acquired) {
+            rejected.increment();
+            throw new BulkheadFullException("Too many concurrent database calls, try again shortly");
+        }
+    }
+
+    private Object enter(ProceedingJoinPoint joinPoint, int[] callDepth) throws Throwable {
+        callDepth[0]++;
+        try {
+            return joinPoint.proceed();
+        } finally {
+            if (--callDepth[0] == 0) {
+                depth.remove(); // Virtual threads are not reused; don't leave one map entry per request behind
+            }
+        }
+    }
+
+    public interface StreamingWork {
+        void run() throws IOException;
+    }
+
+    // A permit taken by reserve(), held by whichever thread runs the work and released
+    // after it. Releasing is idempotent; a permit released before the work started
+    // (see reserve) skips the work, since nobody is waiting for its output any more.
+    public final class Permit implements AutoCloseable {
+
+        private static final int RESERVED = 0;
+        private static final int RUNNING = 1;
+        private static final int RELEASED = 2;
+
+        private final boolean held;
+        private final AtomicInteger state = new AtomicInteger(RESERVED);
+
+        private Permit(boolean held) {
+            this.held = held;
+        }
+
+        public void runHolding(StreamingWork work) throws IOException {
+            if (!state.compareAndSet(RESERVED, RUNNING)) {
+                return;
+            }
+            int[] callDepth = depth.get();
+            callDepth[0]++;
+            try {
+                work.run();
+            } finally {
+                if (--callDepth[0] == 0) {
+                    depth.remove();
+                }
+                close();
+            }
+        }
+
+        @Override
+        public void close() {
+            if (state.getAndSet(RELEASED) != RELEASED && held) {
+                permits.release();
+            }
+        }
+
+        // Request completed: only a permit whose work never started is released here,
+        // work still running (e.g. after a timeout) keeps it until it returns
+        private void abandon() {
+            if (state.compareAndSet(RESERVED, RELEASED) && held) {
+                permits.release();
+            }
+        }
+    }
+}
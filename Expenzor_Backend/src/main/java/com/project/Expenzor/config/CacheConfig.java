@@ -0,0 +1,26 @@
+package com.project.Expenzor.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+// Caches in front of the ExpenseService dashboard reads. The backing store is picked
+// by Spring Boot from spring.cache.* (Caffeine in-process by default; switch
+// spring.cache.type to e.g. redis for a cache shared between instances).
+// Invalidation lives in ExpenseCacheInvalidator. It is best effort: a read racing a
+// write can re-cache the old value after the eviction, so entries can be stale for up
+// to the expireAfterWrite in spring.cache.caffeine.spec.
+// Caching runs outside the transaction interceptor, so a hit never borrows a connection.
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+
+    // Every key starts with the current tenant: [tenant, ...] or just the tenant
+    public static final String TENANT_KEY = "T(com.project.Expenzor.tenant.TenantContext).current()";
+
+    public static final String MONTHLY_TOTALS = "monthlyTotals";          // key: [tenant, YearMonth]
+    public static final String CATEGORY_WISE = "categoryWise";            // key: [tenant, YearMonth]
+    public static final String OVERALL_TOTAL = "overallTotal";            // key: tenant
+    public static final String RECENT_TRANSACTIONS = "recentTransactions"; // key: tenant
+    public static final String MONTHLY_COMPARISON = "monthlyComparison";  // key: [tenant, month range]
+}
@@ -0,0 +1,21 @@
+package com.project.Expenzor.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// With spring.main.lazy-initialization=true (the fast-startup launch, see the
+// fast-startup Maven profile) beans are only created when first used, except the
+// application's own: controllers, services, event listeners, the ingest replay and the
+// schema check must be ready before the first request, and so must what they depend on
+// (data source, Flyway, JPA). What stays lazy is infrastructure a request may never
+// touch, such as actuator endpoints, health contributors and unused converters.
+// Has no effect while lazy initialization is off (the default).
+@Configuration
+public class LazyInitializationConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter applicationBeansEager() {
+        return (beanName, beanDefinition, beanType) -> beanType.getPackageName().startsWith("com.project.Expenzor");
+    }
+}
@@ -0,0 +1,139 @@
+package com.project.Expenzor.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+// Flyway owns the schema (db/migration) and Hibernate only validates it, so nothing
+// recreates an index that was dropped by hand or never migrated. This checks, once at
+// startup, that every index the repository queries depend on is there: any index whose
+// leading columns match one of the accepted column lists will do. Missing ones are logged (expenzor.schema.index-check=warn),
+// fail startup (fail) or are not looked for (off).
+@Slf4j
+@Component
+public class SchemaIndexCheck implements SmartInitializingSingleton {
+
+    // Satisfied by an index that starts with any one of the column lists
+    private record RequiredIndex(String table, List<List<String>> anyOf, String usedBy) {
+
+        boolean presentIn(List<List<String>> indexes) {
+            return anyOf.stream().anyMatch(required -> indexes.stream().anyMatch(columns ->
+                    columns.size() >= required.size() && columns.subList(0, required.size()).equals(required)));
+        }
+
+        @Override
+        public String toString() {
+            return table + " (" + anyOf.stream().map(columns -> String.join(", ", columns))
+                    .collect(Collectors.joining(" or ")) + ") for " + usedBy;
+        }
+    }
+
+    private static final List<RequiredIndex> REQUIRED_INDEXES = List.of(
+            // The partitioned table (db/partitioning) has to start its primary key with tenant_id
+            new RequiredIndex("expenses", List.of(List.of("id"), List.of("tenant_id", "id")), "findByIdAndTenantId"),
+            index("expenses", List.of("tenant_id", "expense_date", "id"),
+                    "keyset paging (/page, /search, /stream), /by-date"),
+            index("expenses", List.of("tenant_id", "category", "expense_date"), "/search by category"),
+            index("expenses", List.of("tenant_id", "created_at"), "recent transactions"),
+            index("expenses", List.of("tenant_id", "expense_date", "amount"),
+                    "calendar heatmap (index-only)"),
+            index("expense_monthly_rollups", List.of("tenant_id", "period_year", "period_month", "category"),
+                    "dashboard rollup reads and upserts"),
+            index("ingest_checkpoints", List.of("log_id"), "write-behind ingestion checkpoints"),
+            index("expense_data_versions", List.of("tenant_id"), "dashboard and calendar ETags"),
+            index("recurring_expenses", List.of("next_due_date"), "recurring expense scheduler"),
+            index("recurring_expenses", List.of("tenant_id"), "listing recurring expenses"),
+            index("expense_budgets", List.of("tenant_id", "category"), "budget statuses and per-write checks"));
+
+    private static RequiredIndex index(String table, List<String> columns, String usedBy) {
+        return new RequiredIndex(table, List.of(columns), usedBy);
+    }
+
+    private final DataSource dataSource;
+    private final String mode;
+
+    public SchemaIndexCheck(DataSource dataSource, @Value("${expenzor.schema.index-check:warn}") String mode) {
+        this.dataSource = dataSource;
+        this.mode = mode.toLowerCase(Locale.ROOT);
+    }
+
+    // Runs after every singleton (including the Flyway migration) is set up, before the web server starts
+    @Override
+    public void afterSingletonsInstantiated() {
+        if ("off".equals(mode)) {
+            return;
+        }
+        List<String> missing;
+        try {
+            missing = missingIndexes();
+        } catch (SQLException | RuntimeException e) {
+            log.warn("Could not check the database indexes", e);
+            return;
+        }
+
+        if (missing.isEmpty()) {
+            log.info("All {} indexes the repository queries need are present", REQUIRED_INDEXES.size());
+            return;
+        }
+        missing.forEach(index -> log.warn("Missing index on {}", index));
+        if ("fail".equals(mode)) {
+            throw new IllegalStateException("Missing database indexes: " + missing);
+        }
+    }
+
+    // The required indexes the database lacks, described for the log
+    List<String> missingIndexes() throws SQLException {
+        List<String> missing = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            Map<String, List<List<String>>> indexesByTable = new HashMap<>();
+            for (RequiredIndex required : REQUIRED_INDEXES) {
+                List<List<String>> indexes = indexesByTable.computeIfAbsent(required.table(),
+                        table -> readIndexes(connection, metaData, table));
+                if (!required.presentIn(indexes)) {
+                    missing.add(required.toString());
+                }
+            }
+        }
+        return missing;
+    }
+
+    // Column lists of every index on the table, in index column order
+    private static List<List<String>> readIndexes(Connection connection, DatabaseMetaData metaData, String table) {
+        try {
+            String tableName = metaData.storesUpperCaseIdentifiers() ? table.toUpperCase(Locale.ROOT) : table;
+            String schema = connection.getSchema();
+            if (schema != null && metaData.storesUpperCaseIdentifiers()) {
+                schema = schema.toUpperCase(Locale.ROOT);
+            }
+            Map<String, TreeMap<Short, String>> indexes = new HashMap<>();
+            try (ResultSet rs = metaData.getIndexInfo(connection.getCatalog(), schema, tableName, false, true)) {
+                while (rs.next()) {
+                    String index = rs.getString("INDEX_NAME");
+                    String column = rs.getString("COLUMN_NAME");
+                    if (index != null && column != null) { // Table statistics rows have neither
+                        indexes.computeIfAbsent(index, name -> new TreeMap<>())
+                                .put(rs.getShort("ORDINAL_POSITION"), column.toLowerCase(Locale.ROOT));
+                    }
+                }
+            }
+            return indexes.values().stream().map(columns -> (List<String>) new ArrayList<>(columns.values())).toList();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not read the indexes of " + table, e);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.project.Expenzor.controller;
+
+import com.project.Expenzor.analytics.ExpenseAnalyticsService;
+import com.project.Expenzor.dto.AnalyticsBucketDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Chart aggregates served from the in-process analytics store (expenzor.analytics.enabled).
+// from/to are optional and inclusive; every endpoint acts for the X-Tenant-ID tenant.
+@RestController
+@RequestMapping("/api/expense/analytics")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+@ConditionalOnProperty(name = "expenzor.analytics.enabled", havingValue = "true")
+public class AnalyticsController {
+
+    private final ExpenseAnalyticsService analyticsService;
+
+    // One bucket per month from the first to the last month of the range (at most ten
+    // years), empty months as zero
+    @GetMapping("/by-month")
+    public ResponseEntity<List<AnalyticsBucketDTO>> getTotalsByMonth(
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return new ResponseEntity<>(analyticsService.totalsByMonth(from, to), HttpStatus.OK);
+        } catch (IllegalArgumentException e) { // from after to, or more than ten years
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @GetMapping("/by-category")
+    public ResponseEntity<List<AnalyticsBucketDTO>> getTotalsByCategory(
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return new ResponseEntity<>(analyticsService.totalsByCategory(from, to), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // Always seven buckets, MONDAY first
+    @GetMapping("/by-day-of-week")
+    public ResponseEntity<List<AnalyticsBucketDTO>> getTotalsByDayOfWeek(
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return new ResponseEntity<>(analyticsService.totalsByDayOfWeek(from, to), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @GetMapping("/total")
+    public ResponseEntity<AnalyticsBucketDTO> getTotal(
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return new ResponseEntity<>(analyticsService.total(from, to), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+}
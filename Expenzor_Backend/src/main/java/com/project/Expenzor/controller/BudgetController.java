@@ -0,0 +1,71 @@
+package com.project.Expenzor.controller;
+
+import com.project.Expenzor.concurrency.BulkheadFullException;
+import com.project.Expenzor.dto.BudgetDTO;
+import com.project.Expenzor.dto.BudgetRequestDTO;
+import com.project.Expenzor.dto.BudgetStatusDTO;
+import com.project.Expenzor.service.ExpenseBudgetService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+import java.util.List;
+
+// Monthly budgets per category for the current tenant
+@RestController
+@RequestMapping("/api/expense/budgets")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class BudgetController {
+
+    private final ExpenseBudgetService budgetService;
+
+    // Create or replace the budget of a category
+    @PutMapping("/{category}")
+    public ResponseEntity<BudgetDTO> saveBudget(@PathVariable String category,
+            @Valid @RequestBody BudgetRequestDTO requestDTO) {
+        try {
+            return new ResponseEntity<>(budgetService.saveBudget(category, requestDTO), HttpStatus.OK);
+        } catch (IllegalArgumentException e) { // Category blank or too long
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (BulkheadFullException e) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<List<BudgetDTO>> getBudgets() {
+        try {
+            return new ResponseEntity<>(budgetService.getBudgets(), HttpStatus.OK);
+        } catch (BulkheadFullException e) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+
+    @DeleteMapping("/{category}")
+    public ResponseEntity<Void> deleteBudget(@PathVariable String category) {
+        try {
+            budgetService.deleteBudget(category);
+            return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+        } catch (BulkheadFullException e) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        } catch (RuntimeException e) { // No budget for that category
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+
+    // Every budget against one month's spending (?month=2025-03, default the current month)
+    @GetMapping("/status")
+    public ResponseEntity<List<BudgetStatusDTO>> getBudgetStatuses(
+            @RequestParam(name = "month", required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth month) {
+        try {
+            return new ResponseEntity<>(budgetService.getBudgetStatuses(month != null ? month : YearMonth.now()), HttpStatus.OK);
+        } catch (BulkheadFullException e) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+}
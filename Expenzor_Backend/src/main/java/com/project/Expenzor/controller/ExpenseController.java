@@ -1,20 +1,46 @@
 package com.project.Expenzor.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.Expenzor.concurrency.BulkheadFullException;
+import com.project.Expenzor.concurrency.DatabaseBulkhead;
+import com.project.Expenzor.dto.BulkImportResultDTO;
+import com.project.Expenzor.dto.CalendarHeatmapDTO;
 import com.project.Expenzor.dto.CategorySumDTO;
+import com.project.Expenzor.dto.DashboardDTO;
+import com.project.Expenzor.dto.ExpenseField;
+import com.project.Expenzor.dto.ExpenseFilterDTO;
+import com.project.Expenzor.dto.ExpensePageDTO;
 import com.project.Expenzor.dto.ExpenseRequestDTO;
 import com.project.Expenzor.dto.ExpenseResponseDTO;
+import com.project.Expenzor.dto.ExpenseSearchPageDTO;
 import com.project.Expenzor.dto.MonthlySummaryDTO; // Import if you use this DTO
+import com.project.Expenzor.json.ExpenseRowWriter;
+import com.project.Expenzor.service.ExpenseBulkService;
+import com.project.Expenzor.service.ExpenseDataVersion;
 import com.project.Expenzor.service.ExpenseService;
+import com.project.Expenzor.sse.ExpenseChangeFeed;
+import com.project.Expenzor.tenant.TenantContext;
 import jakarta.validation.Valid; // For @Valid annotation
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.*; // If you decide to return a Map instead of MonthlySummaryDTO list
 
+// Every endpoint acts for the tenant named in the X-Tenant-ID header (see TenantFilter)
 @RestController
 @RequestMapping("/api/expense")
 @RequiredArgsConstructor // Lombok for constructor injection
@@ -22,6 +48,10 @@ import java.util.*; // If you decide to return a Map instead of MonthlySummaryDT
 public class ExpenseController { // Renamed to follow Java naming conventions (PascalCase)
 
     private final ExpenseService expenseService;
+    private final ExpenseBulkService expenseBulkService;
+    private final ObjectMapper objectMapper;
+    private final DatabaseBulkhead databaseBulkhead;
+    private final ExpenseChangeFeed expenseChangeFeed;
 
     // --- Basic CRUD Operations ---
 
@@ -34,10 +64,94 @@ public class ExpenseController { // Renamed to follow Java naming conventions (P
     }
 
     // Get All Expenses (for Transactions page)
-    @GetMapping("/all") // More RESTful endpoint name
-    public ResponseEntity<List<ExpenseResponseDTO>> getAllExpenses() {
-        List<ExpenseResponseDTO> expenses = expenseService.getAllExpenses();
-        return new ResponseEntity<>(expenses, HttpStatus.OK);
+    // Still a plain JSON array, but written row by row from a database cursor instead
+    // of being built up as one List, so large tables no longer blow up the heap.
+    // ?fields=id,amount,category,expenseDate narrows every row to those fields;
+    // ?compact=true sends the field names once and each row as an array of values.
+    @GetMapping(value = "/all", produces = MediaType.APPLICATION_JSON_VALUE) // More RESTful endpoint name
+    public ResponseEntity<StreamingResponseBody> getAllExpenses(
+            @RequestParam(name = "fields", required = false) String fields,
+            @RequestParam(name = "compact", defaultValue = "false") boolean compact) throws InterruptedException {
+        List<ExpenseField> selected;
+        try {
+            selected = ExpenseField.parse(fields);
+        } catch (IllegalArgumentException e) { // Unknown field name
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        DatabaseBulkhead.Permit permit = databaseBulkhead.reserve(); // 503 now, not halfway through a 200
+        StreamingResponseBody body = out -> permit.runHolding(() -> {
+            try (ExpenseRowWriter writer = ExpenseRowWriter.array(objectMapper.getFactory(), out, selected, compact)) {
+                expenseService.streamExpenseColumns(null, selected, row -> write(writer, row));
+            }
+        });
+        // Explicit: produces does not set the header for StreamingResponseBody (needed for gzip)
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    // Keyset-paginated expenses, newest first. Pass back "nextCursor" to get the next page.
+    @GetMapping("/page")
+    public ResponseEntity<ExpensePageDTO> getExpensePage(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "50") int size,
+            @RequestParam(name = "category", required = false) String category,
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            ExpensePageDTO page = expenseService.getExpensePage(new ExpenseFilterDTO(from, to, category), cursor, size);
+            return new ResponseEntity<>(page, HttpStatus.OK);
+        } catch (IllegalArgumentException e) { // Malformed cursor
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // Search, e.g. Food and Travel over 500 between March and May mentioning "uber":
+    // ?category=Food&category=Travel&minAmount=500&from=2025-03-01&to=2025-05-31&q=uber
+    // Paged like /page; count=estimate (default, capped), exact or none.
+    @GetMapping("/search")
+    public ResponseEntity<ExpenseSearchPageDTO> searchExpenses(
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(name = "category", required = false) Set<String> categories,
+            @RequestParam(name = "minAmount", required = false) BigDecimal minAmount,
+            @RequestParam(name = "maxAmount", required = false) BigDecimal maxAmount,
+            @RequestParam(name = "q", required = false) String text,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "50") int size,
+            @RequestParam(name = "count", defaultValue = "estimate") String count) {
+        try {
+            ExpenseFilterDTO filter = new ExpenseFilterDTO(from, to, null, categories, minAmount, maxAmount, text);
+            ExpenseService.CountMode countMode = ExpenseService.CountMode.valueOf(count.toUpperCase(Locale.ROOT));
+            ExpenseSearchPageDTO page = expenseService.searchExpenses(filter, cursor, size, countMode);
+            return new ResponseEntity<>(page, HttpStatus.OK);
+        } catch (IllegalArgumentException e) { // Malformed cursor, unknown count mode or inverted range
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // Stream all matching expenses as NDJSON (one JSON object per line); fields and
+    // compact as for /all (compact: a header line with the field names, then one array per row)
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamExpenses(
+            @RequestParam(name = "category", required = false) String category,
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(name = "fields", required = false) String fields,
+            @RequestParam(name = "compact", defaultValue = "false") boolean compact)
+            throws InterruptedException {
+        List<ExpenseField> selected;
+        try {
+            selected = ExpenseField.parse(fields);
+        } catch (IllegalArgumentException e) { // Unknown field name
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        ExpenseFilterDTO filter = new ExpenseFilterDTO(from, to, category);
+        DatabaseBulkhead.Permit permit = databaseBulkhead.reserve();
+        StreamingResponseBody body = out -> permit.runHolding(() -> {
+            try (ExpenseRowWriter writer = ExpenseRowWriter.lines(objectMapper.getFactory(), out, selected, compact)) {
+                expenseService.streamExpenseColumns(filter, selected, row -> write(writer, row));
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     // Get Expense by ID
@@ -46,6 +160,8 @@ public class ExpenseController { // Renamed to follow Java naming conventions (P
         try {
             ExpenseResponseDTO expense = expenseService.getExpenseById(id);
             return new ResponseEntity<>(expense, HttpStatus.OK);
+        } catch (BulkheadFullException e) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
         } catch (RuntimeException e) { // Catch the RuntimeException thrown by service for "not found"
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
@@ -58,6 +174,8 @@ public class ExpenseController { // Renamed to follow Java naming conventions (P
         try {
             ExpenseResponseDTO updatedExpense = expenseService.updateExpense(id, expenseRequestDTO);
             return new ResponseEntity<>(updatedExpense, HttpStatus.OK);
+        } catch (BulkheadFullException e) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
         } catch (RuntimeException e) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND); // If expense with ID not found
         }
@@ -69,6 +187,8 @@ public class ExpenseController { // Renamed to follow Java naming conventions (P
         try {
             expenseService.deleteExpense(id); // Call service method directly with Long
             return new ResponseEntity<>(HttpStatus.NO_CONTENT); // 204 No Content for successful deletion
+        } catch (BulkheadFullException e) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
         } catch (RuntimeException e) { // Catch service-level exceptions (e.g., not found)
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         } catch (Exception e) { // General fallback for other errors
@@ -76,8 +196,47 @@ public class ExpenseController { // Renamed to follow Java naming conventions (P
         }
     }
 
+    // --- Bulk Import / Export ---
+
+    // Import a CSV (with header row) or NDJSON request body; ?format=csv|ndjson.
+    // Valid rows are saved in batches, invalid rows are reported by line number.
+    @PostMapping("/import")
+    public ResponseEntity<BulkImportResultDTO> importExpenses(
+            @RequestParam(name = "format", defaultValue = ExpenseBulkService.FORMAT_NDJSON) String format,
+            InputStream body) throws IOException {
+        BulkImportResultDTO result = expenseBulkService.importExpenses(body, format);
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
+    // Export matching expenses as CSV or NDJSON, streamed from a database cursor
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportExpenses(
+            @RequestParam(name = "format", defaultValue = ExpenseBulkService.FORMAT_NDJSON) String format,
+            @RequestParam(name = "category", required = false) String category,
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to)
+            throws InterruptedException {
+        boolean csv = ExpenseBulkService.FORMAT_CSV.equalsIgnoreCase(format);
+        ExpenseFilterDTO filter = new ExpenseFilterDTO(from, to, category);
+        DatabaseBulkhead.Permit permit = databaseBulkhead.reserve();
+        StreamingResponseBody body = out -> permit.runHolding(() -> expenseBulkService.exportExpenses(filter, format, out));
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv") : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=expenses." + (csv ? "csv" : "ndjson"))
+                .body(body);
+    }
+
     // --- Dashboard & Reporting Requirements ---
 
+    // Server-sent events: one message per committed add/update/delete with the deltas to
+    // month totals and category sums, so an open dashboard can patch itself instead of
+    // re-polling. Reconnects resume after Last-Event-ID. EventSource can't send
+    // headers itself; the trusted proxy adds X-Tenant-ID as for any other request.
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+        return expenseChangeFeed.subscribe(TenantContext.current(), lastEventId);
+    }
+
     // 1. Get Total Money Spent (overall)
     @GetMapping("/total")
     public ResponseEntity<BigDecimal> getTotalOverallExpense() {
@@ -129,17 +288,99 @@ public class ExpenseController { // Renamed to follow Java naming conventions (P
     @GetMapping("/comparison/monthly")
     public ResponseEntity<List<MonthlySummaryDTO>> getPreviousMonthsComparison(
             @RequestParam(name = "numMonths", defaultValue = "3") int numMonths) { // Default to 3 months
-        List<MonthlySummaryDTO> monthlySummaries = expenseService.getPreviousMonthsComparison(numMonths);
-        return new ResponseEntity<>(monthlySummaries, HttpStatus.OK);
+        try {
+            List<MonthlySummaryDTO> monthlySummaries = expenseService.getPreviousMonthsComparison(numMonths);
+            return new ResponseEntity<>(monthlySummaries, HttpStatus.OK);
+        } catch (IllegalArgumentException e) { // Too many months
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // Monthly totals (or per-category breakdown) over an arbitrary range, e.g. ?start=2025-01&end=2025-12
+    @GetMapping("/comparison/range")
+    public ResponseEntity<List<?>> getMonthlyTotalsBetween(
+            @RequestParam(name = "start") @DateTimeFormat(pattern = "yyyy-MM") YearMonth start,
+            @RequestParam(name = "end") @DateTimeFormat(pattern = "yyyy-MM") YearMonth end,
+            @RequestParam(name = "byCategory", defaultValue = "false") boolean byCategory) {
+        try {
+            List<?> totals = byCategory
+                    ? expenseService.getMonthlyCategoryBreakdownBetween(start, end)
+                    : expenseService.getMonthlyTotalsBetween(start, end);
+            return new ResponseEntity<>(totals, HttpStatus.OK);
+        } catch (IllegalArgumentException e) { // start after end, or too long a range
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // Whole dashboard in one call. Supports If-None-Match: while no instance has written
+    // the tenant's expenses since the client's copy, the answer is a 304 after one
+    // primary-key read (see ExpenseDataVersion).
+    @GetMapping("/dashboard")
+    public ResponseEntity<DashboardDTO> getDashboard(
+            @RequestParam(name = "numMonths", defaultValue = "3") int numMonths,
+            WebRequest webRequest) {
+        String variant = numMonths + "-" + YearMonth.now();
+        String current = etag(expenseService.getDataVersion(), variant);
+        if (webRequest.checkNotModified(current)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current).build();
+        }
+        try {
+            ExpenseDataVersion.Versioned<DashboardDTO> dashboard =
+                    expenseService.readVersioned(() -> expenseService.getDashboard(numMonths));
+            return ResponseEntity.ok().eTag(etag(dashboard.version(), variant)).body(dashboard.value());
+        } catch (IllegalArgumentException e) { // Too many months
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // Calendar heatmap: per-day totals and counts for a whole range in one call,
+    // ?year=2025 (default: this year) or ?from=2025-01-01&to=2025-03-31
+    @GetMapping("/calendar")
+    public ResponseEntity<CalendarHeatmapDTO> getCalendarHeatmap(
+            @RequestParam(name = "year", required = false) Integer year,
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            WebRequest webRequest) {
+        if (year != null && (year < 1 || year > 9999)) { // LocalDate.of would throw a DateTimeException (500)
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        int calendarYear = year != null ? year : LocalDate.now().getYear();
+        LocalDate start = from != null ? from : LocalDate.of(calendarYear, 1, 1);
+        LocalDate end = to != null ? to : LocalDate.of(calendarYear, 12, 31);
+        String variant = start + "-" + end;
+        String current = etag(expenseService.getDataVersion(), variant);
+        if (webRequest.checkNotModified(current)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current).build();
+        }
+        try {
+            ExpenseDataVersion.Versioned<CalendarHeatmapDTO> heatmap =
+                    expenseService.readVersioned(() -> expenseService.getCalendarHeatmap(start, end));
+            return ResponseEntity.ok().eTag(etag(heatmap.version(), variant)).body(heatmap.value());
+        } catch (IllegalArgumentException e) { // Inverted or too long range
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // Tenant, data version and whatever else the response depends on
+    private static String etag(long version, String variant) {
+        return "\"" + TenantContext.current() + "-" + version + "-" + variant + "\"";
     }
 
     // 5. Get Transactions for a Specific Date (for Calendar click)
     @GetMapping("/by-date")
     public ResponseEntity<List<ExpenseResponseDTO>> getExpensesByDate(
-            @RequestParam("date") @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE) LocalDate date) {
+            @RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
         // @DateTimeFormat helps Spring parse the date string (e.g., "2025-06-04") into
         // LocalDate
         List<ExpenseResponseDTO> expenses = expenseService.getExpensesByDate(date);
         return new ResponseEntity<>(expenses, HttpStatus.OK);
     }
+
+    private static void write(ExpenseRowWriter writer, Object[] row) {
+        try {
+            writer.write(row);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // Client went away mid-stream
+        }
+    }
 }
\ No newline at end of file
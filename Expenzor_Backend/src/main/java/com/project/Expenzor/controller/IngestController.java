@@ -0,0 +1,37 @@
+package com.project.Expenzor.controller;
+
+import com.project.Expenzor.dto.ExpenseRequestDTO;
+import com.project.Expenzor.dto.IngestAckDTO;
+import com.project.Expenzor.ingest.IngestQueueFullException;
+import com.project.Expenzor.ingest.WriteBehindIngestor;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+// High-rate ingestion for automated sources (expenzor.ingest.enabled). Unlike /add the
+// response is 202 Accepted with the log sequence: the expense is durable, but it shows
+// up in queries only after the next batch is written (typically within milliseconds).
+@RestController
+@RequestMapping("/api/expense/ingest")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+@ConditionalOnProperty(name = "expenzor.ingest.enabled", havingValue = "true")
+public class IngestController {
+
+    private final WriteBehindIngestor ingestor;
+
+    @PostMapping
+    public ResponseEntity<IngestAckDTO> ingestExpense(@Valid @RequestBody ExpenseRequestDTO expenseRequestDTO)
+            throws IOException, InterruptedException {
+        try {
+            return new ResponseEntity<>(ingestor.submit(expenseRequestDTO), HttpStatus.ACCEPTED);
+        } catch (IngestQueueFullException e) { // Backpressure: the client should retry later
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.project.Expenzor.controller;
+
+import com.project.Expenzor.concurrency.BulkheadFullException;
+import com.project.Expenzor.dto.RecurringExpenseRequestDTO;
+import com.project.Expenzor.dto.RecurringExpenseResponseDTO;
+import com.project.Expenzor.service.ExpenseRecurringService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+// Recurring expense rules of the current tenant. Occurrences become ordinary expenses
+// once due, written by ExpenseRecurringService every expenzor.recurring.interval.
+@RestController
+@RequestMapping("/api/expense/recurring")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class RecurringExpenseController {
+
+    private final ExpenseRecurringService recurringService;
+
+    @PostMapping
+    public ResponseEntity<RecurringExpenseResponseDTO> createRecurringExpense(
+            @Valid @RequestBody RecurringExpenseRequestDTO requestDTO) {
+        try {
+            return new ResponseEntity<>(recurringService.createRecurringExpense(requestDTO), HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) { // Dates outside the accepted window, or endDate before startDate
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (BulkheadFullException e) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<List<RecurringExpenseResponseDTO>> getRecurringExpenses() {
+        try {
+            return new ResponseEntity<>(recurringService.getRecurringExpenses(), HttpStatus.OK);
+        } catch (BulkheadFullException e) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteRecurringExpense(@PathVariable Long id) {
+        try {
+            recurringService.deleteRecurringExpense(id);
+            return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+        } catch (BulkheadFullException e) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        } catch (RuntimeException e) { // Not found
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.project.Expenzor.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.project.Expenzor.tenant.TenantContext;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Picks the connection for read-only transactions (see ReplicaRoutingConfig): the next
+// usable replica in round-robin order, or the primary when the tenant committed a write
+// within the read-your-writes window, or when no replica is up and within max-lag.
+// Any read-write transaction that takes a primary connection counts as a write, whatever
+// it changed (expenses, budgets, recurring rules), once it commits.
+// Every health-check-interval each replica is asked for its replication lag; a replica
+// that fails a connection attempt in between is skipped until the next check passes.
+// The checks run on the router's own threads, one schedule per replica, so neither a
+// busy @Scheduled job nor another replica timing out holds them up; a lag sample older
+// than two intervals (a check that hangs) counts as no sample.
+@Slf4j
+public class ReplicaRouter implements AutoCloseable {
+
+    // Seconds the replica's replay is behind the primary; 0 when it has replayed
+    // everything it received (an idle primary sends nothing, so the last replayed
+    // transaction's age alone would look like lag)
+    private static final String POSTGRESQL_LAG_QUERY = """
+            SELECT CASE WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                        ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END""";
+
+    private static final class Replica {
+        final String name;
+        final String url;
+        final HikariDataSource pool;
+        final Counter reads;
+        volatile boolean up = true; // Until the first check says otherwise
+        volatile long lagMillis = -1; // -1 until the first successful check
+        volatile long sampledAt; // System.nanoTime() of the check that measured lagMillis
+        String lagQuery; // Resolved from the database product on the first check
+
+        Replica(String name, String url, HikariDataSource pool, Counter reads) {
+            this.name = name;
+            this.url = url;
+            this.pool = pool;
+            this.reads = reads;
+        }
+    }
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long maxLagMillis;
+    private final Duration checkInterval;
+    private final long staleAfterNanos;
+    private final ScheduledExecutorService checker;
+    private final String configuredLagQuery;
+    private final Cache<String, Boolean> recentWriters;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter stickyReads;
+    private final Counter fallbackReads;
+    private final DataSource writeDataSource = new AbstractDataSource() {
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection connection = primary.getConnection();
+            rememberWriter();
+            return connection;
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            Connection connection = primary.getConnection(username, password);
+            rememberWriter();
+            return connection;
+        }
+    };
+    private final DataSource readOnlyDataSource = new AbstractDataSource() {
+        @Override
+        public Connection getConnection() throws SQLException {
+            return route();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            throw new UnsupportedOperationException("Replica connections use the configured credentials");
+        }
+    };
+
+    public ReplicaRouter(DataSource primary, List<HikariConfig> replicaConfigs, Duration maxLag,
+            Duration readYourWrites, Duration checkInterval, String lagQuery, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.maxLagMillis = maxLag.toMillis();
+        this.checkInterval = checkInterval;
+        this.staleAfterNanos = checkInterval.multipliedBy(2).toNanos();
+        this.configuredLagQuery = lagQuery == null || lagQuery.isBlank() ? null : lagQuery;
+        this.recentWriters = Caffeine.newBuilder().expireAfterWrite(readYourWrites).build();
+        this.stickyReads = readCounter(meterRegistry, "primary", "read-your-writes");
+        this.fallbackReads = readCounter(meterRegistry, "primary", "no-replica");
+        for (HikariConfig config : replicaConfigs) {
+            Replica replica = new Replica(config.getPoolName(), config.getJdbcUrl(), new HikariDataSource(config),
+                    readCounter(meterRegistry, config.getPoolName(), "replica"));
+            replicas.add(replica);
+            Gauge.builder("expenzor.replicas.lag", replica, r -> r.lagMillis)
+                    .description("Replication lag at the last health check (-1 = never reached)")
+                    .tag("replica", replica.name)
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+            Gauge.builder("expenzor.replicas.up", replica, r -> r.up ? 1 : 0)
+                    .description("1 while the replica passes its health checks")
+                    .tag("replica", replica.name)
+                    .register(meterRegistry);
+        }
+        this.checker = Executors.newScheduledThreadPool(replicas.size(), task -> {
+            Thread thread = new Thread(task, "expenzor-replica-health");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Reads stay on the primary until the first check has measured each replica
+    @PostConstruct
+    public void start() {
+        for (Replica replica : replicas) {
+            checker.scheduleWithFixedDelay(() -> check(replica), 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static Counter readCounter(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder("expenzor.datasource.reads")
+                .description("Read-only transactions by the data source that served them")
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    // Handed to LazyConnectionDataSourceProxy as its target: the primary, noting who writes
+    public DataSource writeDataSource() {
+        return writeDataSource;
+    }
+
+    // Handed to LazyConnectionDataSourceProxy as its read-only data source
+    public DataSource readOnlyDataSource() {
+        return readOnlyDataSource;
+    }
+
+    private Connection route() throws SQLException {
+        if (recentWriters.getIfPresent(TenantContext.current()) != null) {
+            stickyReads.increment();
+            return primary.getConnection();
+        }
+        for (int attempt = 0; attempt < replicas.size(); attempt++) {
+            Replica replica = replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+            if (!usable(replica)) {
+                continue;
+            }
+            try {
+                Connection connection = replica.pool.getConnection();
+                replica.reads.increment();
+                return connection;
+            } catch (SQLException e) {
+                markDown(replica, e);
+            }
+        }
+        fallbackReads.increment();
+        return primary.getConnection();
+    }
+
+    private boolean usable(Replica replica) {
+        return replica.up && replica.lagMillis >= 0 && replica.lagMillis <= maxLagMillis
+                && System.nanoTime() - replica.sampledAt <= staleAfterNanos;
+    }
+
+    // --- Read-your-writes: reads go to the primary for a while after a tenant's write commits ---
+
+    // Only transactions read from replicas, so work outside one (startup, health checks) isn't counted
+    private void rememberWriter() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return;
+        }
+        String tenantId = TenantContext.current();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentWriters.put(tenantId, Boolean.TRUE);
+            }
+        });
+    }
+
+    // --- Health ---
+
+    private void check(Replica replica) {
+        boolean measured = replica.lagMillis >= 0;
+        boolean wasUsable = usable(replica);
+        try (Connection connection = replica.pool.getConnection(); Statement statement = connection.createStatement()) {
+            if (replica.lagQuery == null) {
+                replica.lagQuery = configuredLagQuery != null ? configuredLagQuery
+                        : "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName()) ? POSTGRESQL_LAG_QUERY
+                        : "SELECT 0"; // No replication to measure (e.g. a local H2 stand-in)
+            }
+            try (ResultSet rs = statement.executeQuery(replica.lagQuery)) {
+                rs.next();
+                replica.lagMillis = Math.round(rs.getDouble(1) * 1000);
+                replica.sampledAt = System.nanoTime();
+            }
+            replica.up = true;
+        } catch (SQLException e) {
+            markDown(replica, e);
+            return;
+        } catch (RuntimeException e) { // Would cancel the replica's schedule
+            log.warn("Health check of replica {} failed", replica.name, e);
+            return;
+        }
+        if (!wasUsable && usable(replica)) {
+            log.info(measured ? "Replica {} is serving reads again (lag {} ms)" : "Replica {} is serving reads (lag {} ms)",
+                    replica.name, replica.lagMillis);
+        } else if (wasUsable && !usable(replica)) {
+            log.warn("Replica {} is {} ms behind the primary; reading from the primary until it catches up",
+                    replica.name, replica.lagMillis);
+        }
+    }
+
+    private void markDown(Replica replica, SQLException e) {
+        if (replica.up) {
+            log.warn("Replica {} is down; reading from the other replicas or the primary: {}", replica.name, e.getMessage());
+        }
+        replica.up = false;
+    }
+
+    // Reads fall back to the primary, so no usable replica is reported in the details, not as DOWN
+    public Health health() {
+        Map<String, Object> details = new LinkedHashMap<>();
+        long usable = 0;
+        for (Replica replica : replicas) {
+            Map<String, Object> state = new LinkedHashMap<>();
+            state.put("url", replica.url);
+            state.put("up", replica.up);
+            state.put("lagMs", replica.lagMillis);
+            state.put("lagAgeMs", replica.lagMillis < 0 ? -1
+                    : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - replica.sampledAt));
+            state.put("servingReads", usable(replica));
+            details.put(replica.name, state);
+            if (usable(replica)) {
+                usable++;
+            }
+        }
+        details.put("maxLagMs", maxLagMillis);
+        details.put("readsOn", usable > 0 ? usable + " replica(s)" : "primary");
+        return Health.up().withDetails(details).build();
+    }
+
+    @Override
+    public void close() {
+        checker.shutdownNow();
+        replicas.forEach(replica -> replica.pool.close());
+    }
+}
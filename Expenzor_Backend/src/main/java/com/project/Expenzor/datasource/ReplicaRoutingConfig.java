@@ -0,0 +1,88 @@
+package com.project.Expenzor.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Read replicas (expenzor.replicas.enabled=true): read-only transactions — every
+// @Transactional(readOnly = true) service method and Spring Data's own finders — run on
+// a replica picked by ReplicaRouter, everything else on the primary pool built from
+// spring.datasource.*. The LazyConnectionDataSourceProxy is what makes this work: it
+// hands out a connection handle at transaction start and only fetches a real one at the
+// first statement, by which time the transaction has marked it read-only.
+// That needs one connection per transaction, so spring.jpa.open-in-view stays off.
+@Configuration
+@ConditionalOnProperty(name = "expenzor.replicas.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    // Takes the place of Spring Boot's pool, with the same spring.datasource.hikari.* settings
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRouter replicaRouter(HikariDataSource primaryDataSource, DataSourceProperties properties,
+            MeterRegistry meterRegistry,
+            @Value("${expenzor.replicas.urls:}") List<String> urls,
+            @Value("${expenzor.replicas.username:${spring.datasource.username:}}") String username,
+            @Value("${expenzor.replicas.password:${spring.datasource.password:}}") String password,
+            @Value("${expenzor.replicas.pool-size:${spring.datasource.hikari.maximum-pool-size:10}}") int poolSize,
+            @Value("${expenzor.replicas.connection-timeout:1s}") Duration connectionTimeout,
+            @Value("${expenzor.replicas.max-lag:5s}") Duration maxLag,
+            @Value("${expenzor.replicas.read-your-writes:5s}") Duration readYourWrites,
+            @Value("${expenzor.replicas.health-check-interval:5s}") Duration healthCheckInterval,
+            @Value("${expenzor.replicas.lag-query:}") String lagQuery) {
+        List<HikariConfig> replicas = new ArrayList<>();
+        for (String url : urls) {
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("replica-" + replicas.size());
+            config.setJdbcUrl(url.trim());
+            config.setDriverClassName(properties.determineDriverClassName());
+            config.setUsername(username);
+            config.setPassword(password);
+            config.setMaximumPoolSize(poolSize);
+            config.setConnectionTimeout(connectionTimeout.toMillis()); // Short: a dead replica falls back quickly
+            config.setInitializationFailTimeout(-1); // A replica that is down at startup doesn't stop the app
+            config.setReadOnly(true);
+            config.setMetricRegistry(meterRegistry);
+            replicas.add(config);
+        }
+        if (replicas.isEmpty()) {
+            throw new IllegalStateException("expenzor.replicas.enabled is set but expenzor.replicas.urls is empty");
+        }
+        return new ReplicaRouter(primaryDataSource, replicas, maxLag, readYourWrites, healthCheckInterval, lagQuery,
+                meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRouter replicaRouter) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(replicaRouter.writeDataSource());
+        dataSource.setReadOnlyDataSource(replicaRouter.readOnlyDataSource());
+        return dataSource;
+    }
+
+    // /actuator/health: state and lag of every replica, under "replicas"
+    @Bean
+    public HealthIndicator replicasHealthIndicator(ReplicaRouter replicaRouter) {
+        return replicaRouter::health;
+    }
+}
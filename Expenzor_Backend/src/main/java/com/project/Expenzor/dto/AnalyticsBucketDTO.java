@@ -0,0 +1,15 @@
+package com.project.Expenzor.dto;
+
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AnalyticsBucketDTO {
+    private String key;            // "2025-03", a category, "MONDAY" or "total"
+    private BigDecimal totalAmount;
+    private long expenseCount;
+}
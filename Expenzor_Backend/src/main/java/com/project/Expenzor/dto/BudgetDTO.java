@@ -0,0 +1,15 @@
+package com.project.Expenzor.dto;
+
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BudgetDTO {
+    private String category;
+    private BigDecimal monthlyLimit;
+    private int warnPercent;
+}
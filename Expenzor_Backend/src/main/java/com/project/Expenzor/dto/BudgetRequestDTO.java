@@ -0,0 +1,19 @@
+package com.project.Expenzor.dto;
+
+import java.math.BigDecimal;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class BudgetRequestDTO {
+    @NotNull(message = "Monthly limit is required")
+    @DecimalMin(value = "0.01", message = "Monthly limit must be greater than 0")
+    private BigDecimal monthlyLimit;
+
+    @Min(value = 1, message = "Warning threshold must be between 1 and 100 percent")
+    @Max(value = 100, message = "Warning threshold must be between 1 and 100 percent")
+    private int warnPercent = 80;
+}
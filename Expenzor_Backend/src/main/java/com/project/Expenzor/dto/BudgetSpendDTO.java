@@ -0,0 +1,17 @@
+package com.project.Expenzor.dto;
+
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A budget joined with its month's rollup bucket (spent is 0 when there is none)
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BudgetSpendDTO {
+    private String category;
+    private BigDecimal monthlyLimit;
+    private int warnPercent;
+    private BigDecimal spent;
+}
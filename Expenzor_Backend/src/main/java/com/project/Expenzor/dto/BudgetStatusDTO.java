@@ -0,0 +1,20 @@
+package com.project.Expenzor.dto;
+
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Spending against one category budget in one month
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BudgetStatusDTO {
+    private String month;           // "2025-03"
+    private String category;
+    private BigDecimal monthlyLimit;
+    private BigDecimal spent;
+    private BigDecimal remaining;   // Negative once exceeded
+    private BigDecimal percentUsed; // Of monthlyLimit, two decimals
+    private String status;          // OK, WARNING (from warnPercent on) or EXCEEDED
+}
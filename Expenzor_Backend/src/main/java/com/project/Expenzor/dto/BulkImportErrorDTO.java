@@ -0,0 +1,13 @@
+package com.project.Expenzor.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkImportErrorDTO {
+    private long line;      // 1-based line number in the uploaded file
+    private String message;
+}
@@ -0,0 +1,14 @@
+package com.project.Expenzor.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class BulkImportResultDTO {
+    private long totalRows;
+    private long imported;
+    private long failed;
+    private List<BulkImportErrorDTO> errors = new ArrayList<>(); // capped, see errorsTruncated
+    private boolean errorsTruncated;
+}
@@ -0,0 +1,21 @@
+package com.project.Expenzor.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Per-day totals for a date range, as parallel arrays indexed by days since "from"
+// (totals[0] is "from", totals[n - 1] is "to"); days without expenses are 0.
+// A year is two arrays of 365 numbers instead of 365 objects.
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CalendarHeatmapDTO {
+    private LocalDate from;
+    private LocalDate to;
+    private BigDecimal[] totals;
+    private int[] counts;
+    private BigDecimal maxTotal; // Largest daily total, for scaling the colours
+}
@@ -0,0 +1,16 @@
+package com.project.Expenzor.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DailySumDTO {
+    private LocalDate expenseDate;
+    private BigDecimal totalAmount;
+    private long expenseCount;
+}
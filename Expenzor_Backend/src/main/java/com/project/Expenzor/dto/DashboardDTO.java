@@ -0,0 +1,19 @@
+package com.project.Expenzor.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Everything the dashboard page shows, in one response
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DashboardDTO {
+    private BigDecimal overallTotal;
+    private BigDecimal currentMonthTotal;
+    private List<CategorySumDTO> categoryWise;              // current month
+    private List<ExpenseResponseDTO> recentTransactions;
+    private List<MonthlySummaryDTO> monthlyComparison;      // oldest first, ends with current month
+}
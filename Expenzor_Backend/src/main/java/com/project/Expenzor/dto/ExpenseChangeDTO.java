@@ -0,0 +1,29 @@
+package com.project.Expenzor.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Payload of one /api/expense/events message. Clients add the deltas to their month
+// totals and category sums; RESYNC (or resyncAll/resyncMonths on COALESCED) means
+// those months changed in bulk and should be re-fetched. BUDGET carries budgets whose
+// status a write changed.
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExpenseChangeDTO {
+    private String type;          // CREATED, UPDATED, DELETED, RESYNC, BUDGET or COALESCED (several merged)
+    private Long expenseId;       // null for RESYNC, BUDGET and COALESCED
+    private LocalDate expenseDate; // The expense after the change; null for DELETED, RESYNC, BUDGET, COALESCED
+    private String category;
+    private BigDecimal amount;
+    private List<ExpenseDeltaDTO> monthTotals = new ArrayList<>();
+    private List<ExpenseDeltaDTO> categoryTotals = new ArrayList<>();
+    private List<String> resyncMonths = new ArrayList<>();
+    private boolean resyncAll;
+    private List<BudgetStatusDTO> budgets = new ArrayList<>(); // New status of each budget, one per month and category
+}
@@ -0,0 +1,17 @@
+package com.project.Expenzor.dto;
+
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Change to one month's total (category null) or to one month+category sum
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExpenseDeltaDTO {
+    private String month;        // "2025-03"
+    private String category;     // null in monthTotals
+    private BigDecimal amountDelta;
+    private long countDelta;
+}
@@ -0,0 +1,51 @@
+package com.project.Expenzor.dto;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+// Fields of an expense that list responses can be narrowed to with ?fields=, in response
+// order. The JSON name is also the Expense attribute it is read from.
+public enum ExpenseField {
+    ID("id"),
+    DESCRIPTION("description"),
+    AMOUNT("amount"),
+    CATEGORY("category"),
+    EXPENSE_DATE("expenseDate"),
+    CREATED_AT("createdAt"),
+    UPDATED_AT("updatedAt");
+
+    public static final List<ExpenseField> ALL = List.of(values());
+
+    private final String property;
+
+    ExpenseField(String property) {
+        this.property = property;
+    }
+
+    public String property() {
+        return property;
+    }
+
+    // "id,amount,category,expenseDate" -> those fields in response order; null or blank -> ALL
+    public static List<ExpenseField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Set<ExpenseField> selected = EnumSet.noneOf(ExpenseField.class);
+        for (String name : fields.split(",")) {
+            selected.add(ofProperty(name.trim()));
+        }
+        return new ArrayList<>(selected);
+    }
+
+    private static ExpenseField ofProperty(String name) {
+        for (ExpenseField field : values()) {
+            if (field.property.equals(name)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown field: " + name);
+    }
+}
@@ -0,0 +1,25 @@
+package com.project.Expenzor.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Set;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExpenseFilterDTO {
+    private LocalDate from;          // inclusive, null = open
+    private LocalDate to;            // inclusive, null = open
+    private String category;         // exact match, null = any
+    private Set<String> categories;  // any of these, null/empty = any
+    private BigDecimal minAmount;    // inclusive, null = open
+    private BigDecimal maxAmount;    // inclusive, null = open
+    private String text;             // case-insensitive substring of description, null = any
+
+    public ExpenseFilterDTO(LocalDate from, LocalDate to, String category) {
+        this(from, to, category, null, null, null, null);
+    }
+}
@@ -0,0 +1,14 @@
+package com.project.Expenzor.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExpensePageDTO {
+    private List<ExpenseResponseDTO> items;
+    private String nextCursor; // null when this is the last page
+}
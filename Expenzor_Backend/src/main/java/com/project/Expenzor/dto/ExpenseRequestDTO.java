@@ -3,20 +3,25 @@ package com.project.Expenzor.dto;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import jakarta.validation.constraints.DecimalMin; // For validation (optional but recommended)
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.Data;
 
 @Data
 public class ExpenseRequestDTO {
     @NotBlank(message = "Description cannot be empty")
+    @Size(max = 255, message = "Description can be at most 255 characters") // Column limits (V1)
     private String description;
 
     @NotNull(message = "Amount is required")
     @DecimalMin(value = "0.01", message = "Amount must be greater than 0")
+    @Digits(integer = 8, fraction = 2, message = "Amount can have at most 8 digits before and 2 after the decimal point")
     private BigDecimal amount;
 
     @NotBlank(message = "Category cannot be empty")
+    @Size(max = 50, message = "Category can be at most 50 characters")
     private String category;
 
     @NotNull(message = "Expense date is required")
@@ -0,0 +1,16 @@
+package com.project.Expenzor.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExpenseSearchPageDTO {
+    private List<ExpenseResponseDTO> items;
+    private String nextCursor;  // null when this is the last page
+    private Long totalCount;    // all matches, not just this page; null when not requested
+    private boolean countExact; // false: the count stopped at the cap, there are at least totalCount matches
+}
@@ -0,0 +1,13 @@
+package com.project.Expenzor.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class IngestAckDTO {
+    private long sequence; // Position in the ingest log; the expense id is assigned when it is flushed
+    private String status; // "ACCEPTED"
+}
@@ -0,0 +1,17 @@
+package com.project.Expenzor.dto;
+
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MonthlyCategorySumDTO {
+    private int year;
+    private int month;
+    private String category;
+    private BigDecimal totalAmount;
+    private long expenseCount;
+}
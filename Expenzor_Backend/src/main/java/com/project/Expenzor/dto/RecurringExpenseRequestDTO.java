@@ -0,0 +1,41 @@
+package com.project.Expenzor.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import com.project.Expenzor.model.RecurringExpense;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class RecurringExpenseRequestDTO {
+    @NotBlank(message = "Description cannot be empty")
+    @Size(max = 255, message = "Description can be at most 255 characters") // Column limits (V8), as for expenses
+    private String description;
+
+    @NotNull(message = "Amount is required")
+    @DecimalMin(value = "0.01", message = "Amount must be greater than 0")
+    @Digits(integer = 8, fraction = 2, message = "Amount can have at most 8 digits before and 2 after the decimal point")
+    private BigDecimal amount;
+
+    @NotBlank(message = "Category cannot be empty")
+    @Size(max = 50, message = "Category can be at most 50 characters")
+    private String category;
+
+    @NotNull(message = "Frequency is required")
+    private RecurringExpense.Frequency frequency;
+
+    @Min(value = 1, message = "Interval must be at least 1")
+    @Max(value = 1000, message = "Interval can be at most 1000")
+    private int intervalCount = 1; // Every n-th day/week/month/year
+
+    @NotNull(message = "Start date is required")
+    private LocalDate startDate; // At most a year back; see ExpenseRecurringService
+
+    private LocalDate endDate; // Optional, inclusive
+}
@@ -0,0 +1,22 @@
+package com.project.Expenzor.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import lombok.Data;
+
+@Data
+public class RecurringExpenseResponseDTO {
+    private Long id;
+    private String description;
+    private BigDecimal amount;
+    private String category;
+    private String frequency;
+    private int intervalCount;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private LocalDate nextDueDate; // null once finished
+    private long occurrenceCount;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
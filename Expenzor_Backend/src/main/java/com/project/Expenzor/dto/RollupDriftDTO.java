@@ -0,0 +1,19 @@
+package com.project.Expenzor.dto;
+
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// How far one rollup bucket is off from its expenses: what has to be added to it
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RollupDriftDTO {
+    private String tenantId;
+    private int year;
+    private int month;
+    private String category;
+    private BigDecimal amount;
+    private long expenseCount;
+}
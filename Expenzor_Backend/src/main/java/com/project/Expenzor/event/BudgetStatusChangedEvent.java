@@ -0,0 +1,13 @@
+package com.project.Expenzor.event;
+
+import com.project.Expenzor.dto.BudgetStatusDTO;
+import lombok.Value;
+
+// A write moved a budget from one status to another (e.g. OK to WARNING). Published by
+// ExpenseBudgetService just before the writing transaction commits.
+@Value
+public class BudgetStatusChangedEvent {
+    String tenantId;
+    String previousStatus;
+    BudgetStatusDTO budget;
+}
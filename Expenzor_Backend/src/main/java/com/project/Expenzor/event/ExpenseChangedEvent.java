@@ -0,0 +1,31 @@
+package com.project.Expenzor.event;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.time.YearMonth;
+import lombok.Value;
+
+// Published by ExpenseService inside the writing transaction. Listeners that
+// must only see committed data use @TransactionalEventListener (AFTER_COMMIT).
+@Value
+public class ExpenseChangedEvent {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    Type type;
+    String tenantId;
+    Long expenseId;
+    ExpenseSnapshot before; // null for CREATED
+    ExpenseSnapshot after;  // null for DELETED
+
+    public Set<YearMonth> getAffectedMonths() {
+        Set<YearMonth> months = new LinkedHashSet<>();
+        if (before != null) {
+            months.add(before.getMonth());
+        }
+        if (after != null) {
+            months.add(after.getMonth());
+        }
+        return months;
+    }
+}
@@ -0,0 +1,23 @@
+package com.project.Expenzor.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import com.project.Expenzor.model.Expense;
+import lombok.Value;
+
+// The fields of an expense that aggregates depend on, captured at one point in time
+@Value
+public class ExpenseSnapshot {
+    LocalDate expenseDate;
+    String category;
+    BigDecimal amount;
+
+    public static ExpenseSnapshot of(Expense expense) {
+        return new ExpenseSnapshot(expense.getExpenseDate(), expense.getCategory(), expense.getAmount());
+    }
+
+    public YearMonth getMonth() {
+        return YearMonth.from(expenseDate);
+    }
+}
@@ -0,0 +1,23 @@
+package com.project.Expenzor.event;
+
+import java.time.YearMonth;
+import java.util.Set;
+import lombok.Value;
+
+// Many expenses changed at once (bulk import chunk, rollup rebuild). Carries only
+// the tenant and months touched; allMonths means "assume everything changed", and a
+// null tenantId means every tenant.
+@Value
+public class ExpensesBulkChangedEvent {
+    String tenantId;
+    Set<YearMonth> months;
+    boolean allMonths;
+
+    public static ExpensesBulkChangedEvent forMonths(String tenantId, Set<YearMonth> months) {
+        return new ExpensesBulkChangedEvent(tenantId, Set.copyOf(months), false);
+    }
+
+    public static ExpensesBulkChangedEvent everything() {
+        return new ExpensesBulkChangedEvent(null, Set.of(), true);
+    }
+}
@@ -0,0 +1,201 @@
+package com.project.Expenzor.ingest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.Expenzor.dto.ExpenseRequestDTO;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+// Append-only log of acknowledged ingest records, one JSON line each, in segment files
+// named after their first sequence number (ingest-00000000000000000001.log).
+// A record is acknowledged only after sync() has forced it to disk; concurrent callers
+// share one force (group commit). Segments whose records are all at or below the
+// flushed checkpoint are deleted by trim(). Every open starts a new segment, so a line
+// torn by a crash is always the last line of its file, and it was never acknowledged.
+@Slf4j
+final class IngestLog implements AutoCloseable {
+
+    private static final String ID_FILE = "log-id";
+    private static final String SEGMENT_PREFIX = "ingest-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final ObjectMapper objectMapper;
+    private final long segmentBytes;
+    private final String id;
+    private final TreeMap<Long, Path> segments = new TreeMap<>(); // First sequence -> file
+
+    private FileChannel channel;
+    private long channelBytes;
+    private long lastWritten;
+    private volatile long lastSynced;
+    private final Object syncLock = new Object();
+
+    IngestLog(Path directory, ObjectMapper objectMapper, long segmentBytes) throws IOException {
+        this.directory = directory;
+        this.objectMapper = objectMapper;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(directory);
+        Path idFile = directory.resolve(ID_FILE);
+        if (!Files.exists(idFile)) {
+            Files.writeString(idFile, UUID.randomUUID().toString(), StandardOpenOption.CREATE_NEW);
+        }
+        this.id = Files.readString(idFile).trim();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> file.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .forEach(file -> segments.put(firstSequence(file), file));
+        }
+    }
+
+    // Identifies this log (and so this node) in the ingest_checkpoints table
+    String id() {
+        return id;
+    }
+
+    // Reads every record after the checkpoint, in order, and opens a new segment for
+    // appends that continue the sequence. Call once, before append().
+    synchronized List<IngestRecord> open(long checkpoint) throws IOException {
+        List<IngestRecord> pending = new ArrayList<>();
+        long last = checkpoint;
+        for (Path segment : segments.values()) {
+            try (BufferedReader reader = Files.newBufferedReader(segment, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    IngestRecord record;
+                    try {
+                        record = objectMapper.readValue(line, IngestRecord.class);
+                    } catch (JsonProcessingException e) {
+                        log.warn("Skipping torn record at the end of {}", segment.getFileName());
+                        break;
+                    }
+                    last = Math.max(last, record.getSequence());
+                    if (record.getSequence() > checkpoint) {
+                        pending.add(record);
+                    }
+                }
+            }
+        }
+        lastWritten = last;
+        lastSynced = last;
+        newSegment(last + 1);
+        trim(checkpoint);
+        return pending;
+    }
+
+    // Writes the record under the next sequence number and hands it to enqueue while
+    // still holding the log, so records reach the queue in sequence order.
+    // Not durable until sync(sequence) returns.
+    synchronized long append(String tenantId, ExpenseRequestDTO expense, Consumer<IngestRecord> enqueue) throws IOException {
+        IngestRecord record = new IngestRecord(lastWritten + 1, tenantId, expense);
+        byte[] line = (objectMapper.writeValueAsString(record) + "\n").getBytes(StandardCharsets.UTF_8);
+        if (channelBytes > 0 && channelBytes + line.length > segmentBytes) {
+            channel.force(false);
+            channel.close();
+            lastSynced = lastWritten;
+            newSegment(record.getSequence());
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(line);
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            // A partial line may be on disk: continue in a new segment so it stays last in its file
+            channel.force(false);
+            channel.close();
+            lastSynced = lastWritten;
+            newSegment(record.getSequence());
+            throw e;
+        }
+        channelBytes += line.length;
+        lastWritten = record.getSequence();
+        enqueue.accept(record);
+        return record.getSequence();
+    }
+
+    // Returns once the given sequence is on disk. One caller forces everything written
+    // so far; callers waiting behind it usually find their record already covered.
+    void sync(long sequence) throws IOException {
+        while (lastSynced < sequence) {
+            synchronized (syncLock) {
+                if (lastSynced >= sequence) {
+                    return;
+                }
+                FileChannel current;
+                long target;
+                synchronized (this) {
+                    current = channel;
+                    target = lastWritten;
+                }
+                try {
+                    current.force(false);
+                    lastSynced = Math.max(lastSynced, target);
+                } catch (ClosedChannelException e) {
+                    // Rolled to a new segment meanwhile; the roll forced the old one
+                }
+            }
+        }
+    }
+
+    // Deletes segments that hold nothing after the checkpoint (never the open one)
+    synchronized void trim(long checkpoint) {
+        Map.Entry<Long, Path> segment = segments.firstEntry();
+        while (segment != null) {
+            Long next = segments.higherKey(segment.getKey());
+            if (next == null || next - 1 > checkpoint) {
+                return;
+            }
+            try {
+                Files.deleteIfExists(segment.getValue());
+            } catch (IOException e) {
+                log.warn("Could not delete ingest log segment {}", segment.getValue(), e);
+                return;
+            }
+            segments.remove(segment.getKey());
+            segment = segments.firstEntry();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.force(false);
+            channel.close();
+        }
+    }
+
+    private void newSegment(long firstSequence) throws IOException {
+        Path file = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+        // An existing file of this name holds at most a torn, unacknowledged record
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        channelBytes = 0;
+        segments.put(firstSequence, file);
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true); // Make the new file's directory entry durable too
+        } catch (IOException e) {
+            // Not supported on every platform (e.g. Windows)
+        }
+    }
+
+    private static long firstSequence(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
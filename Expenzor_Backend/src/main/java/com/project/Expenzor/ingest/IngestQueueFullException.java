@@ -0,0 +1,18 @@
+package com.project.Expenzor.ingest;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.io.Serial;
+
+// Thrown by WriteBehindIngestor when the queue stays full for max-wait; answered with a 503
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class IngestQueueFullException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public IngestQueueFullException(String message) {
+        super(message);
+    }
+}
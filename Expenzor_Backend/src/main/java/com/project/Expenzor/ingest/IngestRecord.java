@@ -0,0 +1,16 @@
+package com.project.Expenzor.ingest;
+
+import com.project.Expenzor.dto.ExpenseRequestDTO;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One acknowledged expense, as written to the ingest log (one JSON line each)
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class IngestRecord {
+    private long sequence; // Position in the log; increases by one per record
+    private String tenantId;
+    private ExpenseRequestDTO expense;
+}
@@ -0,0 +1,317 @@
+package com.project.Expenzor.ingest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.Expenzor.dto.ExpenseRequestDTO;
+import com.project.Expenzor.dto.IngestAckDTO;
+import com.project.Expenzor.model.Expense;
+import com.project.Expenzor.service.ExpenseBulkService;
+import com.project.Expenzor.tenant.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Opt-in write-behind ingestion for high-rate sources (bank webhooks, receipt scanners).
+// submit() appends the expense to a local append-only log (IngestLog) and acknowledges
+// it once the log is forced to disk; a single flusher thread then collects queued
+// records into batches (batch-size, or whatever arrived within linger) and writes each
+// batch in one transaction with batched inserts (ExpenseBulkService.saveBatch).
+// The same transaction advances this log's row in ingest_checkpoints, so on restart
+// exactly the acknowledged records after the checkpoint are replayed.
+// Backpressure: at most queue-capacity records are waiting; submit() waits up to
+// max-wait for room and then fails with IngestQueueFullException (503).
+// A batch the database refuses for good (SQLState class 22/23: a value too long or out
+// of range, a broken constraint) is halved until the offending records are alone; each
+// is moved to ingest_dead_letters together with the checkpoint advance past it.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "expenzor.ingest.enabled", havingValue = "true")
+public class WriteBehindIngestor implements SmartLifecycle {
+
+    private static final long MAX_RETRY_DELAY_MS = 5_000;
+
+    private final ExpenseBulkService bulkService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final IngestLog ingestLog;
+    private final BlockingQueue<IngestRecord> queue;
+    private final Semaphore room; // Free queue slots; released only once a batch is committed
+    private final int batchSize;
+    private final long lingerNanos;
+    private final long maxWaitNanos;
+    private final Duration shutdownTimeout;
+    private final Counter rejected;
+    private final DistributionSummary batchSizes;
+    private final Counter deadLettered;
+
+    private volatile boolean accepting;
+    private volatile boolean running;
+    private Thread flusher;
+
+    public WriteBehindIngestor(ExpenseBulkService bulkService, JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            @Value("${expenzor.ingest.log-dir:data/ingest-log}") Path logDir,
+            @Value("${expenzor.ingest.segment-size:64MB}") DataSize segmentSize,
+            @Value("${expenzor.ingest.batch-size:500}") int batchSize,
+            @Value("${expenzor.ingest.linger:50ms}") Duration linger,
+            @Value("${expenzor.ingest.queue-capacity:10000}") int queueCapacity,
+            @Value("${expenzor.ingest.max-wait:1s}") Duration maxWait,
+            @Value("${expenzor.ingest.shutdown-timeout:30s}") Duration shutdownTimeout) throws IOException {
+        this.bulkService = bulkService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.ingestLog = new IngestLog(logDir, objectMapper, segmentSize.toBytes());
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.room = new Semaphore(queueCapacity);
+        this.batchSize = batchSize;
+        this.lingerNanos = linger.toNanos();
+        this.maxWaitNanos = maxWait.toNanos();
+        this.shutdownTimeout = shutdownTimeout;
+        this.rejected = Counter.builder("expenzor.ingest.rejected")
+                .description("Ingest submissions refused because the queue stayed full")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("expenzor.ingest.batch.size")
+                .description("Expenses written per write-behind batch")
+                .register(meterRegistry);
+        this.deadLettered = Counter.builder("expenzor.ingest.dead.lettered")
+                .description("Acknowledged expenses the database refused, moved to ingest_dead_letters")
+                .register(meterRegistry);
+        Gauge.builder("expenzor.ingest.queue.size", queue, BlockingQueue::size)
+                .description("Acknowledged expenses not yet written to the database")
+                .register(meterRegistry);
+    }
+
+    // Durable once this returns; the expense reaches the database with the next batch
+    public IngestAckDTO submit(ExpenseRequestDTO expense) throws IOException, InterruptedException {
+        if (!accepting) {
+            throw new IngestQueueFullException("Ingestion is not accepting writes right now");
+        }
+        if (!room.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)) {
+            rejected.increment();
+            throw new IngestQueueFullException("Ingest queue is full, try again shortly");
+        }
+        long sequence;
+        try {
+            sequence = ingestLog.append(TenantContext.current(), expense, queue::add); // Never blocks: room is held
+        } catch (IOException | RuntimeException e) {
+            room.release();
+            throw e;
+        }
+        ingestLog.sync(sequence);
+        return new IngestAckDTO(sequence, "ACCEPTED");
+    }
+
+    // --- Lifecycle: replay before the web server starts, drain after it stops ---
+
+    @Override
+    public void start() {
+        List<IngestRecord> pending;
+        try {
+            pending = ingestLog.open(readCheckpoint());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the ingest log", e);
+        }
+        running = true;
+        flusher = new Thread(this::flushLoop, "expenzor-ingest-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+        if (!pending.isEmpty()) {
+            log.info("Replaying {} acknowledged expenses from the ingest log", pending.size());
+        }
+        for (IngestRecord record : pending) {
+            room.acquireUninterruptibly(); // More than queue-capacity waits for the flusher
+            queue.add(record);
+        }
+        accepting = true;
+    }
+
+    @Override
+    public void stop() {
+        accepting = false;
+        running = false;
+        if (flusher == null) {
+            return;
+        }
+        try {
+            flusher.join(shutdownTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (flusher.isAlive() || !queue.isEmpty()) {
+            log.warn("{} ingested expenses not flushed at shutdown; they will be replayed on restart", queue.size());
+        }
+        try {
+            ingestLog.close();
+        } catch (IOException e) {
+            log.warn("Could not close the ingest log", e);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096; // Below the web server's phase
+    }
+
+    // --- Flushing ---
+
+    private void flushLoop() {
+        List<IngestRecord> batch = new ArrayList<>(batchSize);
+        try {
+            while (running || !queue.isEmpty()) {
+                IngestRecord first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + lingerNanos;
+                while (batch.size() < batchSize) {
+                    if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    IngestRecord next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                if (!flush(batch)) {
+                    return; // Shutting down with the database unavailable; the log still has them
+                }
+                room.release(batch.size());
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Retries until the batch commits (every record in it was acknowledged), backing off
+    // while the database is unavailable. Entities are rebuilt per attempt, since a
+    // rolled-back attempt leaves ids on them. A refused batch is split in two and each
+    // half flushed in order, down to single records, which go to the dead letters.
+    private boolean flush(List<IngestRecord> batch) throws InterruptedException {
+        long lastSequence = batch.get(batch.size() - 1).getSequence();
+        long delay = 100;
+        RuntimeException refusal = null;
+        while (true) {
+            try {
+                if (refusal == null) {
+                    List<Expense> expenses = batch.stream().map(WriteBehindIngestor::toEntity).toList();
+                    bulkService.saveBatch(expenses, () -> advanceCheckpoint(lastSequence));
+                    batchSizes.record(batch.size());
+                } else {
+                    deadLetter(batch.get(0), refusal);
+                }
+                ingestLog.trim(lastSequence);
+                return true;
+            } catch (RuntimeException e) {
+                if (refusal == null && isRefused(e)) {
+                    if (batch.size() > 1) {
+                        int half = batch.size() / 2;
+                        return flush(batch.subList(0, half)) && flush(batch.subList(half, batch.size()));
+                    }
+                    refusal = e;
+                    continue;
+                }
+                if (!running) {
+                    log.warn("Ingest batch ending at {} not written at shutdown", lastSequence, e);
+                    return false;
+                }
+                log.warn("Ingest batch ending at {} failed, retrying in {} ms", lastSequence, delay, e);
+                Thread.sleep(delay);
+                delay = Math.min(delay * 2, MAX_RETRY_DELAY_MS);
+            }
+        }
+    }
+
+    private void deadLetter(IngestRecord record, RuntimeException refusal) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(record.getExpense());
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        String error = String.valueOf(NestedExceptionUtils.getMostSpecificCause(refusal).getMessage());
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("INSERT INTO ingest_dead_letters (log_id, sequence, tenant_id, payload, error, failed_at) "
+                            + "VALUES (?, ?, ?, ?, ?, ?)", ingestLog.id(), record.getSequence(), record.getTenantId(),
+                    payload, error.length() > 1000 ? error.substring(0, 1000) : error, LocalDateTime.now());
+            advanceCheckpoint(record.getSequence());
+        });
+        deadLettered.increment();
+        log.error("Ingested expense {} refused by the database, moved to ingest_dead_letters: {}",
+                record.getSequence(), error);
+    }
+
+    private void advanceCheckpoint(long lastSequence) {
+        jdbcTemplate.update("UPDATE ingest_checkpoints SET last_sequence = ? WHERE log_id = ?", lastSequence, ingestLog.id());
+    }
+
+    // Data exceptions (22) and integrity constraint violations (23) fail the same way on
+    // every retry; anything else (connection lost, deadlock, timeout) is worth retrying
+    private static boolean isRefused(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DataIntegrityViolationException) {
+                return true;
+            }
+            if (cause instanceof SQLException sql && sql.getSQLState() != null
+                    && (sql.getSQLState().startsWith("22") || sql.getSQLState().startsWith("23"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long readCheckpoint() {
+        List<Long> checkpoint = jdbcTemplate.queryForList(
+                "SELECT last_sequence FROM ingest_checkpoints WHERE log_id = ?", Long.class, ingestLog.id());
+        if (!checkpoint.isEmpty()) {
+            return checkpoint.get(0);
+        }
+        jdbcTemplate.update("INSERT INTO ingest_checkpoints (log_id, last_sequence) VALUES (?, 0)", ingestLog.id());
+        return 0;
+    }
+
+    private static Expense toEntity(IngestRecord record) {
+        Expense expense = new Expense();
+        expense.setTenantId(record.getTenantId());
+        expense.setDescription(record.getExpense().getDescription());
+        expense.setAmount(record.getExpense().getAmount());
+        expense.setCategory(record.getExpense().getCategory());
+        expense.setExpenseDate(record.getExpense().getExpenseDate());
+        return expense;
+    }
+}
@@ -0,0 +1,179 @@
+package com.project.Expenzor.json;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.project.Expenzor.dto.ExpenseField;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+// Writes the column rows of ExpenseService.streamExpenseColumns to a response as they
+// come off the cursor, through a bare JsonGenerator: no ExpenseResponseDTO per row, no
+// bean serializer, and dates and timestamps formatted into one reused buffer. Values look the
+// same as ObjectMapper's rendering of ExpenseResponseDTO (ISO dates, plain numbers).
+// Layouts:
+// - array: [{"id":1,...},...]             (/all)
+// - lines: one object per line (NDJSON)   (/stream)
+// - compact: field names once, then each row as an array of values:
+//   {"fields":["id",...],"rows":[[1,...],...]} as an array, or a ["id",...] header line
+//   followed by one [1,...] line per row as NDJSON
+public final class ExpenseRowWriter implements Closeable {
+
+    private static final SerializedString FIELDS = new SerializedString("fields");
+    private static final SerializedString ROWS = new SerializedString("rows");
+
+    private final JsonGenerator generator;
+    private final ExpenseField[] fields;
+    private final SerializedString[] names;
+    private final boolean compact;
+    private final boolean lines;
+    private final char[] buffer = new char[29]; // yyyy-MM-ddTHH:mm:ss.nnnnnnnnn
+
+    private ExpenseRowWriter(JsonFactory factory, OutputStream out, List<ExpenseField> fields, boolean compact,
+            boolean lines) throws IOException {
+        this.generator = factory.createGenerator(out, JsonEncoding.UTF8);
+        this.fields = fields.toArray(ExpenseField[]::new);
+        this.names = new SerializedString[this.fields.length];
+        for (int i = 0; i < this.fields.length; i++) {
+            names[i] = new SerializedString(this.fields[i].property());
+        }
+        this.compact = compact;
+        this.lines = lines;
+        if (lines) {
+            generator.setRootValueSeparator(new SerializedString("\n"));
+            if (compact) {
+                writeFieldNames();
+            }
+        } else if (compact) {
+            generator.writeStartObject();
+            generator.writeFieldName(FIELDS);
+            writeFieldNames();
+            generator.writeFieldName(ROWS);
+            generator.writeStartArray();
+        } else {
+            generator.writeStartArray();
+        }
+    }
+
+    public static ExpenseRowWriter array(JsonFactory factory, OutputStream out, List<ExpenseField> fields,
+            boolean compact) throws IOException {
+        return new ExpenseRowWriter(factory, out, fields, compact, false);
+    }
+
+    public static ExpenseRowWriter lines(JsonFactory factory, OutputStream out, List<ExpenseField> fields,
+            boolean compact) throws IOException {
+        return new ExpenseRowWriter(factory, out, fields, compact, true);
+    }
+
+    // One row, values in the order of the fields given when the writer was created
+    public void write(Object[] row) throws IOException {
+        if (compact) {
+            generator.writeStartArray();
+            for (int i = 0; i < fields.length; i++) {
+                writeValue(fields[i], row[i]);
+            }
+            generator.writeEndArray();
+        } else {
+            generator.writeStartObject();
+            for (int i = 0; i < fields.length; i++) {
+                generator.writeFieldName(names[i]);
+                writeValue(fields[i], row[i]);
+            }
+            generator.writeEndObject();
+        }
+    }
+
+    private void writeFieldNames() throws IOException {
+        generator.writeStartArray();
+        for (SerializedString name : names) {
+            generator.writeString(name);
+        }
+        generator.writeEndArray();
+    }
+
+    private void writeValue(ExpenseField field, Object value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+            return;
+        }
+        switch (field) {
+            case ID -> generator.writeNumber((Long) value);
+            case AMOUNT -> generator.writeNumber((BigDecimal) value);
+            case DESCRIPTION, CATEGORY -> generator.writeString((String) value);
+            case EXPENSE_DATE -> writeDate((LocalDate) value);
+            case CREATED_AT, UPDATED_AT -> writeDateTime((LocalDateTime) value);
+        }
+    }
+
+    // yyyy-MM-dd without building a String per row
+    private void writeDate(LocalDate date) throws IOException {
+        if (date.getYear() < 1000 || date.getYear() > 9999) {
+            generator.writeString(date.toString());
+            return;
+        }
+        putDate(date);
+        generator.writeString(buffer, 0, 10);
+    }
+
+    // DateTimeFormatter.ISO_LOCAL_DATE_TIME (what Jackson writes), without a String per row:
+    // seconds always, then the fraction without trailing zeros
+    private void writeDateTime(LocalDateTime dateTime) throws IOException {
+        if (dateTime.getYear() < 1000 || dateTime.getYear() > 9999) {
+            generator.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(dateTime));
+            return;
+        }
+        putDate(dateTime.toLocalDate());
+        buffer[10] = 'T';
+        putDigits(dateTime.getHour(), 11, 2);
+        buffer[13] = ':';
+        putDigits(dateTime.getMinute(), 14, 2);
+        buffer[16] = ':';
+        putDigits(dateTime.getSecond(), 17, 2);
+        int length = 19;
+        int nano = dateTime.getNano();
+        if (nano != 0) {
+            buffer[19] = '.';
+            putDigits(nano, 20, 9);
+            length = 29;
+            while (buffer[length - 1] == '0') {
+                length--;
+            }
+        }
+        generator.writeString(buffer, 0, length);
+    }
+
+    private void putDate(LocalDate date) {
+        putDigits(date.getYear(), 0, 4);
+        buffer[4] = '-';
+        putDigits(date.getMonthValue(), 5, 2);
+        buffer[7] = '-';
+        putDigits(date.getDayOfMonth(), 8, 2);
+    }
+
+    private void putDigits(int value, int offset, int length) {
+        for (int i = offset + length - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    // Ends the array or object and closes the generator (and with it the output stream)
+    @Override
+    public void close() throws IOException {
+        if (!lines) {
+            generator.writeEndArray();
+            if (compact) {
+                generator.writeEndObject();
+            }
+        }
+        generator.close();
+    }
+}
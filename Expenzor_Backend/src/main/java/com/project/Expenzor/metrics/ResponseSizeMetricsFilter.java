@@ -0,0 +1,152 @@
+package com.project.Expenzor.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Records the number of body bytes serialized per /api request, tagged by endpoint.
+// Streaming endpoints (StreamingResponseBody) are measured in the async dispatch that
+// follows their completion: the count is carried over in a request attribute and recorded
+// by whichever dispatch ends without starting async processing. An AsyncListener added
+// after chain.doFilter could miss a body that completed before it was registered.
+@Component
+@RequiredArgsConstructor
+public class ResponseSizeMetricsFilter extends OncePerRequestFilter {
+
+    static final String METRIC = "expenzor.http.response.bytes";
+    private static final String BYTES_ATTRIBUTE = ResponseSizeMetricsFilter.class.getName() + ".bytes";
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        AtomicLong bytes = (AtomicLong) request.getAttribute(BYTES_ATTRIBUTE);
+        if (bytes == null) {
+            bytes = new AtomicLong();
+            request.setAttribute(BYTES_ATTRIBUTE, bytes);
+        }
+        chain.doFilter(request, new CountingResponse(response, bytes));
+
+        if (!request.isAsyncStarted()) {
+            record(request, bytes.get());
+        }
+    }
+
+    private void record(HttpServletRequest request, long bytes) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder(METRIC)
+                .description("Response body bytes written per request")
+                .baseUnit("bytes")
+                .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                .tag("method", request.getMethod())
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry)
+                .record(bytes);
+    }
+
+    private static final class CountingResponse extends HttpServletResponseWrapper {
+
+        private final AtomicLong bytes;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        CountingResponse(HttpServletResponse response, AtomicLong bytes) {
+            super(response);
+            this.bytes = bytes;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new CountingOutputStream(super.getOutputStream(), bytes);
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), Charset.forName(getCharacterEncoding())));
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            super.flushBuffer();
+        }
+    }
+
+    private static final class CountingOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream delegate;
+        private final AtomicLong bytes;
+
+        CountingOutputStream(ServletOutputStream delegate, AtomicLong bytes) {
+            this.delegate = delegate;
+            this.bytes = bytes;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            bytes.incrementAndGet();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            bytes.addAndGet(len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.project.Expenzor.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Optional;
+
+// Records how many rows each repository query hands back, plus the row count of
+// streamed responses (ExpenseService.streamExpenses and streamExpenseColumns return it).
+// Latency for the same calls comes from Spring Data's spring.data.repository.invocations timer.
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class RowCountMetricsAspect {
+
+    static final String METRIC = "expenzor.rows.returned";
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(* com.project.Expenzor.repository.*Repo.*(..))")
+    public Object countRepositoryRows(ProceedingJoinPoint joinPoint) throws Throwable {
+        Object result = joinPoint.proceed();
+        long rows;
+        if (result instanceof Collection<?> collection) {
+            rows = collection.size();
+        } else if (result instanceof Slice<?> slice) {
+            rows = slice.getNumberOfElements();
+        } else if (result instanceof Optional<?> optional) {
+            rows = optional.isPresent() ? 1 : 0;
+        } else {
+            return result; // Scalars, streams and modifying queries
+        }
+        record(joinPoint.getSignature().getDeclaringType().getSimpleName(), joinPoint.getSignature().getName(), rows);
+        return result;
+    }
+
+    @Around("execution(long com.project.Expenzor.service.ExpenseService.stream*(..))")
+    public Object countStreamedRows(ProceedingJoinPoint joinPoint) throws Throwable {
+        Object result = joinPoint.proceed();
+        record("ExpenseService", joinPoint.getSignature().getName(), (Long) result);
+        return result;
+    }
+
+    private void record(String source, String method, long rows) {
+        DistributionSummary.builder(METRIC)
+                .description("Rows returned per query")
+                .baseUnit("rows")
+                .tag("source", source)
+                .tag("method", method)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry)
+                .record(rows);
+    }
+}
@@ -10,15 +10,20 @@ import lombok.NoArgsConstructor;
 
 @Entity
 @Data
-@Table(name = "expenses")
+@Table(name = "expenses") // Schema and indexes: src/main/resources/db/migration
 @AllArgsConstructor
 @NoArgsConstructor
 public class Expense {
 
+    // Sequence ids with pooled allocation (one nextval per 50 rows) so Hibernate can
+    // batch inserts; IDENTITY forces a round trip per row.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "expenses_seq")
+    @SequenceGenerator(name = "expenses_seq", sequenceName = "expenses_seq", allocationSize = 50)
     @Column(name = "id") 
     private Long id; 
+    @Column(name = "tenant_id", nullable = false, length = 64, updatable = false)
+    private String tenantId; // Owning user; every query filters on it (see TenantContext)
     @Column(name = "description", length = 255) 
     private String description; 
     @Column(name = "amount", nullable = false, precision = 10, scale = 2)
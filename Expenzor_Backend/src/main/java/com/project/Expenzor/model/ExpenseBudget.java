@@ -0,0 +1,43 @@
+package com.project.Expenzor.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Monthly spending limit for one category of one tenant. Spending is read from the
+// expense_monthly_rollups bucket of the same (tenant, month, category).
+@Entity
+@Data
+@Table(name = "expense_budgets")
+@IdClass(ExpenseBudgetId.class)
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExpenseBudget {
+
+    @Id
+    @Column(name = "tenant_id", length = 64)
+    private String tenantId;
+    @Id
+    @Column(name = "category", length = 50)
+    private String category;
+    @Column(name = "monthly_limit", nullable = false, precision = 14, scale = 2)
+    private BigDecimal monthlyLimit;
+    @Column(name = "warn_percent", nullable = false)
+    private int warnPercent; // WARNING from this share of the limit on
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = LocalDateTime.now();
+    }
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
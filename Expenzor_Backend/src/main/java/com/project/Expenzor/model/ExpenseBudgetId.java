@@ -0,0 +1,17 @@
+package com.project.Expenzor.model;
+
+import java.io.Serial;
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExpenseBudgetId implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+    private String tenantId;
+    private String category;
+}
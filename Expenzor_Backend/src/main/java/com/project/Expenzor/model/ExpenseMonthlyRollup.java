@@ -0,0 +1,36 @@
+package com.project.Expenzor.model;
+
+import java.math.BigDecimal;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Running SUM/COUNT of expenses per (tenant, year, month, category). Kept in step with the
+// expenses table by ExpenseRollupService inside the same transaction as each write,
+// so dashboard queries read a handful of rows instead of scanning the history.
+@Entity
+@Data
+@Table(name = "expense_monthly_rollups")
+@IdClass(ExpenseMonthlyRollupId.class)
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExpenseMonthlyRollup {
+
+    @Id
+    @Column(name = "tenant_id", length = 64)
+    private String tenantId;
+    @Id
+    @Column(name = "period_year")
+    private int periodYear;
+    @Id
+    @Column(name = "period_month")
+    private int periodMonth;
+    @Id
+    @Column(name = "category", length = 50)
+    private String category;
+    @Column(name = "total_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalAmount;
+    @Column(name = "expense_count", nullable = false)
+    private long expenseCount;
+}
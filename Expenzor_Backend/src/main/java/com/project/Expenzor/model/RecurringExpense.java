@@ -0,0 +1,86 @@
+package com.project.Expenzor.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A rule that produces an expense every intervalCount days/weeks/months/years from
+// startDate until endDate (inclusive, optional). ExpenseRecurringService writes the
+// occurrences; nextDueDate and occurrenceCount are its cursor.
+@Entity
+@Data
+@Table(name = "recurring_expenses")
+@AllArgsConstructor
+@NoArgsConstructor
+public class RecurringExpense {
+
+    public enum Frequency {
+        DAILY(ChronoUnit.DAYS), WEEKLY(ChronoUnit.WEEKS), MONTHLY(ChronoUnit.MONTHS), YEARLY(ChronoUnit.YEARS);
+
+        private final ChronoUnit unit;
+
+        Frequency(ChronoUnit unit) {
+            this.unit = unit;
+        }
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recurring_expenses_seq")
+    @SequenceGenerator(name = "recurring_expenses_seq", sequenceName = "recurring_expenses_seq", allocationSize = 50)
+    @Column(name = "id")
+    private Long id;
+    @Column(name = "tenant_id", nullable = false, length = 64, updatable = false)
+    private String tenantId;
+    @Column(name = "description", length = 255)
+    private String description;
+    @Column(name = "amount", nullable = false, precision = 10, scale = 2)
+    private BigDecimal amount;
+    @Column(name = "category", nullable = false, length = 50)
+    private String category;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "frequency", nullable = false, length = 16)
+    private Frequency frequency;
+    @Column(name = "interval_count", nullable = false)
+    private int intervalCount;
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+    @Column(name = "end_date")
+    private LocalDate endDate;
+    @Column(name = "next_due_date")
+    private LocalDate nextDueDate; // null once the rule has run past endDate
+    @Column(name = "occurrence_count", nullable = false)
+    private long occurrenceCount; // Occurrences written so far
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Date of the n-th occurrence (0-based), always counted from startDate so a rule
+    // starting on the 31st lands on the last day of shorter months and back on the 31st after.
+    // Throws ArithmeticException or DateTimeException past the range of LocalDate.
+    public LocalDate occurrenceDate(long n) {
+        return startDate.plus(Math.multiplyExact(n, (long) intervalCount), frequency.unit);
+    }
+
+    // Moves the cursor past the occurrence at nextDueDate; leaves it as it was if that throws
+    public void advance() {
+        LocalDate next = occurrenceDate(occurrenceCount + 1);
+        occurrenceCount++;
+        nextDueDate = endDate != null && next.isAfter(endDate) ? null : next;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = LocalDateTime.now();
+    }
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,24 @@
+package com.project.Expenzor.repository;
+
+import com.project.Expenzor.dto.BudgetSpendDTO;
+import com.project.Expenzor.model.ExpenseBudget;
+import com.project.Expenzor.model.ExpenseBudgetId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ExpenseBudgetRepo extends JpaRepository<ExpenseBudget, ExpenseBudgetId> {
+
+    List<ExpenseBudget> findByTenantIdOrderByCategory(String tenantId);
+
+    // Every budget of the tenant with that month's spending: one primary-key lookup into
+    // the rollup table per budget instead of summing the month's expenses
+    @Query("SELECT new com.project.Expenzor.dto.BudgetSpendDTO(b.category, b.monthlyLimit, b.warnPercent, COALESCE(r.totalAmount, 0)) " +
+           "FROM ExpenseBudget b LEFT JOIN ExpenseMonthlyRollup r ON r.tenantId = b.tenantId " +
+           "AND r.periodYear = :year AND r.periodMonth = :month AND r.category = b.category " +
+           "WHERE b.tenantId = :tenantId ORDER BY b.category")
+    List<BudgetSpendDTO> findSpendByMonth(String tenantId, int year, int month);
+}
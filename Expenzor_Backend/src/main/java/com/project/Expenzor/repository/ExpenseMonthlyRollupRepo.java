@@ -0,0 +1,96 @@
+package com.project.Expenzor.repository;
+
+import com.project.Expenzor.dto.CategorySumDTO;
+import com.project.Expenzor.dto.MonthlyCategorySumDTO;
+import com.project.Expenzor.dto.RollupDriftDTO;
+import com.project.Expenzor.model.ExpenseMonthlyRollup;
+import com.project.Expenzor.model.ExpenseMonthlyRollupId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ExpenseMonthlyRollupRepo extends JpaRepository<ExpenseMonthlyRollup, ExpenseMonthlyRollupId> {
+
+    // --- Reads (dashboard) ---
+
+    // All scoped to one tenant; tenant_id leads the primary key
+
+    @Query("SELECT SUM(r.totalAmount) FROM ExpenseMonthlyRollup r " +
+           "WHERE r.tenantId = :tenantId AND r.periodYear = :year AND r.periodMonth = :month")
+    BigDecimal sumAmountByMonthAndYear(String tenantId, int year, int month);
+
+    @Query("SELECT new com.project.Expenzor.dto.CategorySumDTO(r.category, r.totalAmount) " +
+           "FROM ExpenseMonthlyRollup r WHERE r.tenantId = :tenantId AND r.periodYear = :year AND r.periodMonth = :month")
+    List<CategorySumDTO> findCategoryWiseExpenditureByMonthAndYear(String tenantId, int year, int month);
+
+    @Query("SELECT SUM(r.totalAmount) FROM ExpenseMonthlyRollup r WHERE r.tenantId = :tenantId")
+    BigDecimal sumAllExpenseAmounts(String tenantId);
+
+    // Every (month, category) bucket from startYear/startMonth to endYear/endMonth inclusive
+    @Query("SELECT new com.project.Expenzor.dto.MonthlyCategorySumDTO(r.periodYear, r.periodMonth, r.category, r.totalAmount, r.expenseCount) " +
+           "FROM ExpenseMonthlyRollup r WHERE r.tenantId = :tenantId " +
+           "AND (r.periodYear > :startYear OR (r.periodYear = :startYear AND r.periodMonth >= :startMonth)) " +
+           "AND (r.periodYear < :endYear OR (r.periodYear = :endYear AND r.periodMonth <= :endMonth))")
+    List<MonthlyCategorySumDTO> findBucketsBetween(String tenantId, int startYear, int startMonth, int endYear, int endMonth);
+
+    // --- Incremental maintenance ---
+    // Insert-if-missing followed by an in-place increment is race free on both
+    // PostgreSQL and H2: the UPDATE takes the row lock, so concurrent writers to the
+    // same bucket serialize on it instead of losing updates.
+
+    @Modifying
+    @Query(value = "INSERT INTO expense_monthly_rollups (tenant_id, period_year, period_month, category, total_amount, expense_count) " +
+                   "VALUES (:tenantId, :year, :month, :category, 0, 0) ON CONFLICT DO NOTHING", nativeQuery = true)
+    void ensureBucket(String tenantId, int year, int month, String category);
+
+    @Modifying
+    @Query("UPDATE ExpenseMonthlyRollup r SET r.totalAmount = r.totalAmount + :amount, " +
+           "r.expenseCount = r.expenseCount + :count " +
+           "WHERE r.tenantId = :tenantId AND r.periodYear = :year AND r.periodMonth = :month AND r.category = :category")
+    int increment(String tenantId, int year, int month, String category, BigDecimal amount, long count);
+
+    @Modifying
+    @Query("DELETE FROM ExpenseMonthlyRollup r WHERE r.tenantId = :tenantId AND r.periodYear = :year " +
+           "AND r.periodMonth = :month AND r.category = :category AND r.expenseCount <= 0")
+    int deleteIfEmpty(String tenantId, int year, int month, String category);
+
+    // --- Reconcile (maintenance: every tenant at once) ---
+    // Fresh per-bucket sums from expenses minus the stored buckets, in one statement, so
+    // both sides come from the same snapshot: a concurrent write is either in both
+    // (its expense and its increment committed) or in neither. Only buckets that are
+    // off are returned, with the correction to add.
+
+    @Query("SELECT new com.project.Expenzor.dto.RollupDriftDTO(d.tenantId, d.periodYear, d.periodMonth, d.category, " +
+           "SUM(d.amount), SUM(d.expenseCount)) FROM (" +
+           "SELECT e.tenantId AS tenantId, YEAR(e.expenseDate) AS periodYear, MONTH(e.expenseDate) AS periodMonth, " +
+           "e.category AS category, SUM(e.amount) AS amount, COUNT(e) AS expenseCount FROM Expense e " +
+           "GROUP BY e.tenantId, YEAR(e.expenseDate), MONTH(e.expenseDate), e.category " +
+           "UNION ALL " +
+           "SELECT r.tenantId, r.periodYear, r.periodMonth, r.category, -r.totalAmount, -r.expenseCount " +
+           "FROM ExpenseMonthlyRollup r) d " +
+           "GROUP BY d.tenantId, d.periodYear, d.periodMonth, d.category " +
+           "HAVING SUM(d.amount) <> 0 OR SUM(d.expenseCount) <> 0")
+    List<RollupDriftDTO> findDrift();
+
+    // findDrift limited to the months from start to end (inclusive)
+    @Query("SELECT new com.project.Expenzor.dto.RollupDriftDTO(d.tenantId, d.periodYear, d.periodMonth, d.category, " +
+           "SUM(d.amount), SUM(d.expenseCount)) FROM (" +
+           "SELECT e.tenantId AS tenantId, YEAR(e.expenseDate) AS periodYear, MONTH(e.expenseDate) AS periodMonth, " +
+           "e.category AS category, SUM(e.amount) AS amount, COUNT(e) AS expenseCount FROM Expense e " +
+           "WHERE e.expenseDate BETWEEN :start AND :end " +
+           "GROUP BY e.tenantId, YEAR(e.expenseDate), MONTH(e.expenseDate), e.category " +
+           "UNION ALL " +
+           "SELECT r.tenantId, r.periodYear, r.periodMonth, r.category, -r.totalAmount, -r.expenseCount " +
+           "FROM ExpenseMonthlyRollup r " +
+           "WHERE (r.periodYear > :startYear OR (r.periodYear = :startYear AND r.periodMonth >= :startMonth)) " +
+           "AND (r.periodYear < :endYear OR (r.periodYear = :endYear AND r.periodMonth <= :endMonth))) d " +
+           "GROUP BY d.tenantId, d.periodYear, d.periodMonth, d.category " +
+           "HAVING SUM(d.amount) <> 0 OR SUM(d.expenseCount) <> 0")
+    List<RollupDriftDTO> findDriftBetween(LocalDate start, LocalDate end, int startYear, int startMonth, int endYear, int endMonth);
+}
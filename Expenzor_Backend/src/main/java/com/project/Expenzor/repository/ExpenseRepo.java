@@ -1,36 +1,36 @@
 package com.project.Expenzor.repository;
 
 import com.project.Expenzor.model.Expense;
-import com.project.Expenzor.dto.CategorySumDTO; // Assuming you put DTOs in a 'dto' package
+import com.project.Expenzor.dto.DailySumDTO;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ExpenseRepo extends JpaRepository<Expense, Long> {
+public interface ExpenseRepo extends JpaRepository<Expense, Long>, JpaSpecificationExecutor<Expense>, ExpenseRepoCustom {
 
-    // 1. See total money spent for that particular month
-    @Query("SELECT SUM(e.amount) FROM Expense e WHERE YEAR(e.expenseDate) = :year AND MONTH(e.expenseDate) = :month")
-    BigDecimal sumAmountByMonthAndYear(int year, int month);
-
-    // 2. See the category-wise expenditure for the current month
-    // Ensure the DTO path is correct (e.g., com.project.Expenzor.dto.CategorySumDTO)
-    @Query("SELECT new com.project.Expenzor.dto.CategorySumDTO(e.category, SUM(e.amount)) " +
-           "FROM Expense e WHERE YEAR(e.expenseDate) = :year AND MONTH(e.expenseDate) = :month " +
-           "GROUP BY e.category")
-    List<CategorySumDTO> findCategoryWiseExpenditureByMonthAndYear(int year, int month);
+    // Totals and category sums are read from the rollups (ExpenseMonthlyRollupRepo).
+    // Every query is scoped to one tenant and served by a tenant_id-leading index.
 
     // 3. See the recent transactions that were added to the DB
-    List<Expense> findTop5ByOrderByCreatedAtDesc(); // Example for top 5 recent transactions
+    List<Expense> findTop5ByTenantIdOrderByCreatedAtDesc(String tenantId); // Example for top 5 recent transactions
 
     // 5. Calendar click: Redirect to transaction page for that particular date
-    List<Expense> findByExpenseDate(LocalDate date);
-
-    // Optional: For the "Total Money" (sum of all expenses on dashboard)
-    @Query("SELECT SUM(e.amount) FROM Expense e")
-    BigDecimal sumAllExpenseAmounts();
+    List<Expense> findByTenantIdAndExpenseDate(String tenantId, LocalDate date);
+
+    // Calendar heatmap: one row per day that has expenses. Reads only
+    // (tenant_id, expense_date, amount), all of which are in idx_expenses_tenant_date_amount,
+    // so the database can answer it from the index alone.
+    @Query("SELECT new com.project.Expenzor.dto.DailySumDTO(e.expenseDate, SUM(e.amount), COUNT(e)) " +
+           "FROM Expense e WHERE e.tenantId = :tenantId AND e.expenseDate BETWEEN :start AND :end " +
+           "GROUP BY e.expenseDate")
+    List<DailySumDTO> sumAmountByDayBetween(String tenantId, LocalDate start, LocalDate end);
+
+    // Single-row access must check the owner too: another tenant's id is simply "not found"
+    Optional<Expense> findByIdAndTenantId(Long id, String tenantId);
 }
\ No newline at end of file
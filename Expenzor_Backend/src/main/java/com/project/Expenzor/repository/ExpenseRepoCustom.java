@@ -0,0 +1,26 @@
+package com.project.Expenzor.repository;
+
+import com.project.Expenzor.dto.ExpenseField;
+import com.project.Expenzor.model.Expense;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface ExpenseRepoCustom {
+
+    // Streams matching rows with a bounded JDBC fetch size. Each entity is detached
+    // as soon as it is handed out, so the persistence context does not grow with the
+    // result. Must be consumed (and closed) inside a transaction.
+    Stream<Expense> streamAll(Specification<Expense> spec, Sort sort);
+
+    // Projection variant of streamAll: selects only the given columns and hands each row
+    // out as the plain values, in the order of fields. No entity is instantiated, so
+    // nothing enters the persistence context (nothing to detach, dirty-check or map).
+    Stream<Object[]> streamColumns(Specification<Expense> spec, Sort sort, List<ExpenseField> fields);
+
+    // Counts matching rows but stops after limit: reads at most limit ids from an
+    // index instead of counting a huge result to the end. Returns min(matches, limit).
+    long countUpTo(Specification<Expense> spec, int limit);
+}
@@ -0,0 +1,91 @@
+package com.project.Expenzor.repository;
+
+import com.project.Expenzor.dto.ExpenseField;
+import com.project.Expenzor.model.Expense;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.criteria.JpaCriteriaQuery;
+import org.hibernate.query.criteria.JpaSubQuery;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.springframework.data.jpa.repository.query.QueryUtils.toOrders;
+
+public class ExpenseRepoCustomImpl implements ExpenseRepoCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${expenzor.stream.fetch-size:500}")
+    private int fetchSize;
+
+    @Override
+    public Stream<Expense> streamAll(Specification<Expense> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Expense> query = cb.createQuery(Expense.class);
+        Root<Expense> root = query.from(Expense.class);
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(toOrders(sort, root, cb));
+
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()
+                .map(expense -> {
+                    entityManager.detach(expense);
+                    return expense;
+                });
+    }
+
+    @Override
+    public Stream<Object[]> streamColumns(Specification<Expense> spec, Sort sort, List<ExpenseField> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<Expense> root = query.from(Expense.class);
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.multiselect(fields.stream().<Selection<?>>map(field -> root.get(field.property())).toList());
+        query.orderBy(toOrders(sort, root, cb));
+
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+
+    // SELECT count(*) FROM (SELECT 1 FROM expenses WHERE ... LIMIT :limit): the database
+    // stops after limit matches and only the count comes back
+    @Override
+    public long countUpTo(Specification<Expense> spec, int limit) {
+        HibernateCriteriaBuilder cb = entityManager.unwrap(Session.class).getCriteriaBuilder();
+        JpaCriteriaQuery<Long> query = cb.createQuery(Long.class);
+        JpaSubQuery<Tuple> matching = query.subquery(Tuple.class);
+        Root<Expense> root = matching.from(Expense.class);
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            matching.where(predicate);
+        }
+        matching.multiselect(cb.literal(1).alias("one")).fetch(limit);
+        query.from(matching);
+        query.select(cb.count());
+
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
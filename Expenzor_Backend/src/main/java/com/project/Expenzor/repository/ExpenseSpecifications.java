@@ -0,0 +1,72 @@
+package com.project.Expenzor.repository;
+
+import com.project.Expenzor.dto.ExpenseFilterDTO;
+import com.project.Expenzor.model.Expense;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+// Building blocks for the filtered / keyset-paginated expense queries.
+// Every page is ordered by (expenseDate DESC, id DESC), so together with the tenant
+// predicate the seek below lines up with the index on (tenant_id, expense_date, id).
+public final class ExpenseSpecifications {
+
+    public static final Sort KEYSET_SORT = Sort.by(Sort.Order.desc("expenseDate"), Sort.Order.desc("id"));
+
+    private ExpenseSpecifications() {
+    }
+
+    // Always scoped to one tenant; the filter (may be null) narrows it further
+    public static Specification<Expense> matching(String tenantId, ExpenseFilterDTO filter) {
+        Specification<Expense> spec = ofTenant(tenantId);
+        if (filter == null) {
+            return spec;
+        }
+        if (filter.getFrom() != null) {
+            spec = spec.and((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("expenseDate"), filter.getFrom()));
+        }
+        if (filter.getTo() != null) {
+            spec = spec.and((root, query, cb) -> cb.lessThanOrEqualTo(root.get("expenseDate"), filter.getTo()));
+        }
+        if (filter.getCategory() != null && !filter.getCategory().isBlank()) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("category"), filter.getCategory()));
+        }
+        if (filter.getCategories() != null && !filter.getCategories().isEmpty()) {
+            spec = spec.and((root, query, cb) -> root.get("category").in(filter.getCategories()));
+        }
+        if (filter.getMinAmount() != null) {
+            spec = spec.and((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("amount"), filter.getMinAmount()));
+        }
+        if (filter.getMaxAmount() != null) {
+            spec = spec.and((root, query, cb) -> cb.lessThanOrEqualTo(root.get("amount"), filter.getMaxAmount()));
+        }
+        if (filter.getText() != null && !filter.getText().isBlank()) {
+            spec = spec.and(descriptionContains(filter.getText().trim()));
+        }
+        return spec;
+    }
+
+    public static Specification<Expense> ofTenant(String tenantId) {
+        return (root, query, cb) -> cb.equal(root.get("tenantId"), tenantId);
+    }
+
+    // lower(description) LIKE '%text%': on PostgreSQL this is served by the trigram
+    // index idx_expenses_tenant_description_trgm (built on the same lower(description) expression);
+    // elsewhere it is a scan over the rows left by the other predicates
+    public static Specification<Expense> descriptionContains(String text) {
+        String pattern = "%" + text.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get("description")), pattern, '\\');
+    }
+
+    // Rows strictly after the cursor position (expenseDate, id) in KEYSET_SORT order
+    public static Specification<Expense> after(LocalDate expenseDate, Long id) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("expenseDate"), expenseDate),
+                cb.and(cb.equal(root.get("expenseDate"), expenseDate), cb.lessThan(root.get("id"), id)));
+    }
+}
@@ -0,0 +1,31 @@
+package com.project.Expenzor.repository;
+
+import com.project.Expenzor.model.RecurringExpense;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RecurringExpenseRepo extends JpaRepository<RecurringExpense, Long> {
+
+    List<RecurringExpense> findByTenantIdOrderById(String tenantId);
+
+    Optional<RecurringExpense> findByIdAndTenantId(Long id, String tenantId);
+
+    // Rules with an occurrence due on or before the given day, every tenant, oldest due
+    // first (idx_recurring_expenses_next_due). Locked until the batch commits; rules
+    // another instance holds are skipped (SKIP LOCKED where the database supports it).
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT r FROM RecurringExpense r WHERE r.nextDueDate <= :day ORDER BY r.nextDueDate, r.id")
+    List<RecurringExpense> findDueLocked(LocalDate day, Limit limit);
+}
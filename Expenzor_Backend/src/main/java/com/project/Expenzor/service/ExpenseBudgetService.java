@@ -0,0 +1,189 @@
+package com.project.Expenzor.service;
+
+import com.project.Expenzor.dto.BudgetDTO;
+import com.project.Expenzor.dto.BudgetRequestDTO;
+import com.project.Expenzor.dto.BudgetSpendDTO;
+import com.project.Expenzor.dto.BudgetStatusDTO;
+import com.project.Expenzor.event.BudgetStatusChangedEvent;
+import com.project.Expenzor.event.ExpenseChangedEvent;
+import com.project.Expenzor.event.ExpenseSnapshot;
+import com.project.Expenzor.model.ExpenseBudget;
+import com.project.Expenzor.model.ExpenseBudgetId;
+import com.project.Expenzor.model.ExpenseMonthlyRollupId;
+import com.project.Expenzor.repository.ExpenseBudgetRepo;
+import com.project.Expenzor.tenant.TenantContext;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Monthly budgets per category. Spending is read from the rollup buckets, which every
+// write already keeps current, so a budget check is a primary-key lookup rather than a
+// sum over the month's expenses.
+// Writes are checked as they happen: the amount deltas of a transaction's
+// ExpenseChangedEvents are collected and, just before commit, compared with the updated
+// buckets. A budget whose status moves (e.g. OK to WARNING, or back after a delete)
+// produces a BudgetStatusChangedEvent. Bulk imports and rebuilds are not checked this
+// way; clients re-fetch the statuses on RESYNC.
+@Timed(value = "expenzor.service", histogram = true, percentiles = {0.5, 0.95, 0.99})
+@Service
+@RequiredArgsConstructor
+public class ExpenseBudgetService {
+
+    public enum Status { OK, WARNING, EXCEEDED }
+
+    private static final int MAX_CATEGORY_LENGTH = 50;
+    private static final Object PENDING_DELTAS = new Object(); // Transaction resource key
+
+    private final ExpenseBudgetRepo budgetRepo;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+
+    // --- CRUD ---
+
+    // Create or replace the budget for one category
+    @Transactional
+    public BudgetDTO saveBudget(String category, BudgetRequestDTO requestDTO) {
+        if (category == null || category.isBlank() || category.length() > MAX_CATEGORY_LENGTH) {
+            throw new IllegalArgumentException("Category must be 1 to " + MAX_CATEGORY_LENGTH + " characters");
+        }
+        String tenantId = TenantContext.current();
+        ExpenseBudget budget = budgetRepo.findById(new ExpenseBudgetId(tenantId, category))
+                .orElseGet(() -> new ExpenseBudget(tenantId, category, null, 0, null, null));
+        budget.setMonthlyLimit(requestDTO.getMonthlyLimit());
+        budget.setWarnPercent(requestDTO.getWarnPercent());
+        return toBudgetDTO(budgetRepo.save(budget));
+    }
+
+    @Transactional(readOnly = true)
+    public List<BudgetDTO> getBudgets() {
+        return budgetRepo.findByTenantIdOrderByCategory(TenantContext.current()).stream()
+                .map(ExpenseBudgetService::toBudgetDTO)
+                .toList();
+    }
+
+    @Transactional
+    public void deleteBudget(String category) {
+        ExpenseBudgetId id = new ExpenseBudgetId(TenantContext.current(), category);
+        if (!budgetRepo.existsById(id)) {
+            throw new RuntimeException("No budget for category: " + category);
+        }
+        budgetRepo.deleteById(id);
+    }
+
+    // Every budget of the tenant against that month's spending, in one query
+    @Transactional(readOnly = true)
+    public List<BudgetStatusDTO> getBudgetStatuses(YearMonth month) {
+        return budgetRepo.findSpendByMonth(TenantContext.current(), month.getYear(), month.getMonthValue()).stream()
+                .map(spend -> toStatusDTO(month, spend))
+                .toList();
+    }
+
+    // --- Per-write evaluation ---
+
+    // Runs inside the writing transaction (plain @EventListener), once per changed expense
+    @EventListener
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        Map<ExpenseMonthlyRollupId, BigDecimal> deltas = pendingDeltas();
+        if (event.getBefore() != null) {
+            addDelta(deltas, event.getTenantId(), event.getBefore(), event.getBefore().getAmount().negate());
+        }
+        if (event.getAfter() != null) {
+            addDelta(deltas, event.getTenantId(), event.getAfter(), event.getAfter().getAmount());
+        }
+    }
+
+    private static void addDelta(Map<ExpenseMonthlyRollupId, BigDecimal> deltas, String tenantId,
+            ExpenseSnapshot snapshot, BigDecimal amount) {
+        deltas.merge(new ExpenseMonthlyRollupId(tenantId, snapshot.getExpenseDate().getYear(),
+                snapshot.getExpenseDate().getMonthValue(), snapshot.getCategory()), amount, BigDecimal::add);
+    }
+
+    // The current transaction's (tenant, month, category) deltas, checked before it commits
+    @SuppressWarnings("unchecked")
+    private Map<ExpenseMonthlyRollupId, BigDecimal> pendingDeltas() {
+        Map<ExpenseMonthlyRollupId, BigDecimal> deltas =
+                (Map<ExpenseMonthlyRollupId, BigDecimal>) TransactionSynchronizationManager.getResource(PENDING_DELTAS);
+        if (deltas == null) {
+            Map<ExpenseMonthlyRollupId, BigDecimal> created = new LinkedHashMap<>();
+            TransactionSynchronizationManager.bindResource(PENDING_DELTAS, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    evaluate(created);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_DELTAS);
+                }
+            });
+            deltas = created;
+        }
+        return deltas;
+    }
+
+    // One budget query per (tenant, month) written to. The buckets already include this
+    // transaction's writes (and are row-locked by them), so the status before the
+    // transaction is the current spending minus its delta.
+    private void evaluate(Map<ExpenseMonthlyRollupId, BigDecimal> deltas) {
+        Map<ExpenseMonthlyRollupId, Map<String, BigDecimal>> byMonth = new LinkedHashMap<>();
+        deltas.forEach((bucket, delta) -> byMonth.computeIfAbsent(
+                new ExpenseMonthlyRollupId(bucket.getTenantId(), bucket.getPeriodYear(), bucket.getPeriodMonth(), null),
+                key -> new LinkedHashMap<>()).put(bucket.getCategory(), delta));
+
+        byMonth.forEach((key, categoryDeltas) -> {
+            YearMonth month = YearMonth.of(key.getPeriodYear(), key.getPeriodMonth());
+            for (BudgetSpendDTO spend : budgetRepo.findSpendByMonth(key.getTenantId(), month.getYear(), month.getMonthValue())) {
+                BigDecimal delta = categoryDeltas.get(spend.getCategory());
+                if (delta == null || delta.signum() == 0) {
+                    continue;
+                }
+                Status before = status(spend.getSpent().subtract(delta), spend.getMonthlyLimit(), spend.getWarnPercent());
+                BudgetStatusDTO after = toStatusDTO(month, spend);
+                if (!before.name().equals(after.getStatus())) {
+                    meterRegistry.counter("expenzor.budgets.transitions", "status", after.getStatus()).increment();
+                    eventPublisher.publishEvent(new BudgetStatusChangedEvent(key.getTenantId(), before.name(), after));
+                }
+            }
+        });
+    }
+
+    // --- Status ---
+
+    private static Status status(BigDecimal spent, BigDecimal limit, int warnPercent) {
+        if (spent.compareTo(limit) > 0) {
+            return Status.EXCEEDED;
+        }
+        // spent / limit >= warnPercent / 100, without dividing
+        return spent.multiply(BigDecimal.valueOf(100)).compareTo(limit.multiply(BigDecimal.valueOf(warnPercent))) >= 0
+                ? Status.WARNING : Status.OK;
+    }
+
+    private static BudgetStatusDTO toStatusDTO(YearMonth month, BudgetSpendDTO spend) {
+        BigDecimal spent = spend.getSpent();
+        BigDecimal limit = spend.getMonthlyLimit();
+        return new BudgetStatusDTO(month.toString(), spend.getCategory(), limit, spent, limit.subtract(spent),
+                spent.multiply(BigDecimal.valueOf(100)).divide(limit, 2, RoundingMode.HALF_UP),
+                status(spent, limit, spend.getWarnPercent()).name());
+    }
+
+    private static BudgetDTO toBudgetDTO(ExpenseBudget budget) {
+        return new BudgetDTO(budget.getCategory(), budget.getMonthlyLimit(), budget.getWarnPercent());
+    }
+}
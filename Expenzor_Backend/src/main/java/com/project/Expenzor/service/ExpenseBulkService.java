@@ -0,0 +1,319 @@
+package com.project.Expenzor.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.project.Expenzor.dto.BulkImportErrorDTO;
+import com.project.Expenzor.dto.BulkImportResultDTO;
+import com.project.Expenzor.dto.ExpenseFilterDTO;
+import com.project.Expenzor.dto.ExpenseRequestDTO;
+import com.project.Expenzor.dto.ExpenseResponseDTO;
+import com.project.Expenzor.dto.MonthlyCategorySumDTO;
+import com.project.Expenzor.event.ExpenseChangedEvent;
+import com.project.Expenzor.event.ExpenseSnapshot;
+import com.project.Expenzor.event.ExpensesBulkChangedEvent;
+import com.project.Expenzor.model.Expense;
+import com.project.Expenzor.model.ExpenseMonthlyRollupId;
+import com.project.Expenzor.repository.ExpenseRepo;
+import com.project.Expenzor.tenant.TenantContext;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Bulk CSV / NDJSON import and export.
+// Imports are read row by row and written in fixed-size chunks, one transaction
+// per chunk, using JDBC batching (sequence ids with pooled allocation), so memory
+// use depends on the chunk size rather than on the size of the upload.
+@Slf4j
+@Timed(value = "expenzor.service", histogram = true, percentiles = {0.5, 0.95, 0.99})
+@Service
+public class ExpenseBulkService {
+
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_NDJSON = "ndjson";
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final List<String> CSV_EXPORT_COLUMNS = List.of(
+            "id", "description", "amount", "category", "expenseDate", "createdAt", "updatedAt");
+
+    private static final CsvMapper CSV_MAPPER = CsvMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private final ExpenseRepo expenseRepo;
+    private final ExpenseRollupService rollupService;
+    private final ExpenseService expenseService;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public ExpenseBulkService(ExpenseRepo expenseRepo, ExpenseRollupService rollupService, ExpenseService expenseService,
+            EntityManager entityManager, Validator validator, ObjectMapper objectMapper,
+            ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager, @Value("${expenzor.bulk.chunk-size:1000}") int chunkSize) {
+        this.expenseRepo = expenseRepo;
+        this.rollupService = rollupService;
+        this.expenseService = expenseService;
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    // --- Import ---
+
+    public BulkImportResultDTO importExpenses(InputStream in, String format) throws IOException {
+        ImportRun run = new ImportRun(TenantContext.current());
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        if (FORMAT_CSV.equalsIgnoreCase(format)) {
+            readCsv(reader, run);
+        } else {
+            readNdjson(reader, run);
+        }
+        run.flush();
+        return run.result;
+    }
+
+    // Records, not lines: a quoted field may span several lines (the export writes
+    // descriptions with line breaks that way). Columns are taken from the header row,
+    // so their order in the file doesn't matter. A row that fails to bind is skipped up
+    // to its end; a file that can't be tokenized any further ends the import there.
+    private void readCsv(BufferedReader reader, ImportRun run) throws IOException {
+        MappingIterator<ExpenseRequestDTO> rows = CSV_MAPPER.readerFor(ExpenseRequestDTO.class)
+                .with(CsvSchema.emptySchema().withHeader())
+                .with(CsvParser.Feature.TRIM_SPACES)
+                .with(CsvParser.Feature.SKIP_EMPTY_LINES)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .readValues(reader);
+        while (true) {
+            long line;
+            try {
+                if (!rows.hasNextValue()) {
+                    return;
+                }
+                line = rows.getParser().currentLocation().getLineNr(); // Where the row starts
+            } catch (JsonProcessingException e) {
+                run.rowFailed(e.getLocation() != null ? e.getLocation().getLineNr() : 0, "Malformed CSV: " + e.getOriginalMessage());
+                return;
+            }
+            try {
+                run.row(line, rows.nextValue());
+            } catch (JsonProcessingException e) {
+                run.rowFailed(line, "Malformed row: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    // NDJSON escapes line breaks inside strings, so every non-blank line is one row
+    private void readNdjson(BufferedReader reader, ImportRun run) throws IOException {
+        ObjectReader rowReader = objectMapper.readerFor(ExpenseRequestDTO.class);
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                run.row(lineNumber, rowReader.readValue(line));
+            } catch (JsonProcessingException e) {
+                run.rowFailed(lineNumber, "Malformed row: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    // One upload: validates rows, collects valid ones into chunks and writes them
+    private final class ImportRun {
+
+        private final String tenantId;
+        private final BulkImportResultDTO result = new BulkImportResultDTO();
+        private final List<ExpenseRequestDTO> chunk = new ArrayList<>(chunkSize);
+        private final List<Long> chunkLines = new ArrayList<>(chunkSize);
+
+        ImportRun(String tenantId) {
+            this.tenantId = tenantId;
+        }
+
+        void row(long line, ExpenseRequestDTO row) {
+            result.setTotalRows(result.getTotalRows() + 1);
+            if (row == null) { // e.g. an NDJSON line of null
+                recordError(result, line, "Empty row");
+                return;
+            }
+            Set<ConstraintViolation<ExpenseRequestDTO>> violations = validator.validate(row);
+            if (!violations.isEmpty()) {
+                recordError(result, line, violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                return;
+            }
+            chunk.add(row);
+            chunkLines.add(line);
+            if (chunk.size() == chunkSize) {
+                flush();
+            }
+        }
+
+        void rowFailed(long line, String message) {
+            result.setTotalRows(result.getTotalRows() + 1);
+            recordError(result, line, message);
+        }
+
+        // A chunk the database rejects (a constraint the validation doesn't know about)
+        // is written again row by row, so only the offending rows are reported
+        void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            try {
+                writeChunk(tenantId, chunk);
+                result.setImported(result.getImported() + chunk.size());
+            } catch (RuntimeException e) {
+                log.warn("Bulk import chunk (lines {}-{}) failed, retrying row by row",
+                        chunkLines.get(0), chunkLines.get(chunkLines.size() - 1), e);
+                for (int i = 0; i < chunk.size(); i++) {
+                    try {
+                        writeChunk(tenantId, List.of(chunk.get(i)));
+                        result.setImported(result.getImported() + 1);
+                    } catch (RuntimeException rowFailure) {
+                        recordError(result, chunkLines.get(i), "Row was not saved: " + rowFailure.getMessage());
+                    }
+                }
+            }
+            chunk.clear();
+            chunkLines.clear();
+        }
+    }
+
+    // One transaction per chunk: batched inserts plus the matching rollup deltas
+    private void writeChunk(String tenantId, List<ExpenseRequestDTO> rows) {
+        List<Expense> chunk = rows.stream().map(row -> toEntity(tenantId, row)).toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            expenseRepo.saveAll(chunk);
+            entityManager.flush();
+            // Detach the chunk: keeps the persistence context from growing, and stops the
+            // rollup UPDATEs below from dirty-checking every row on auto-flush
+            entityManager.clear();
+            List<MonthlyCategorySumDTO> buckets = aggregateByBucket(tenantId, chunk);
+            rollupService.addAll(tenantId, buckets);
+            eventPublisher.publishEvent(ExpensesBulkChangedEvent.forMonths(tenantId, buckets.stream()
+                    .map(bucket -> YearMonth.of(bucket.getYear(), bucket.getMonth()))
+                    .collect(Collectors.toSet())));
+        });
+    }
+
+    // --- Write-behind ingestion and recurring expenses ---
+
+    // One transaction (or the caller's) for a batch of rows of any tenants, queued by
+    // WriteBehindIngestor or due from ExpenseRecurringService. Each row gets its own
+    // CREATED event, as from addExpense, so listeners apply deltas instead of reloading.
+    // alsoInTransaction commits or rolls back with the rows.
+    public void saveBatch(List<Expense> expenses, Runnable alsoInTransaction) {
+        transactionTemplate.executeWithoutResult(status -> {
+            expenseRepo.saveAll(expenses);
+            entityManager.flush();
+            entityManager.clear();
+            expenses.stream()
+                    .collect(Collectors.groupingBy(Expense::getTenantId, LinkedHashMap::new, Collectors.toList()))
+                    .forEach((tenantId, rows) -> rollupService.addAll(tenantId, aggregateByBucket(tenantId, rows)));
+            for (Expense expense : expenses) {
+                eventPublisher.publishEvent(new ExpenseChangedEvent(ExpenseChangedEvent.Type.CREATED, expense.getTenantId(),
+                        expense.getId(), null, ExpenseSnapshot.of(expense)));
+            }
+            alsoInTransaction.run();
+        });
+    }
+
+    private static List<MonthlyCategorySumDTO> aggregateByBucket(String tenantId, List<Expense> expenses) {
+        Map<ExpenseMonthlyRollupId, MonthlyCategorySumDTO> buckets = new LinkedHashMap<>();
+        for (Expense expense : expenses) {
+            int year = expense.getExpenseDate().getYear();
+            int month = expense.getExpenseDate().getMonthValue();
+            MonthlyCategorySumDTO bucket = buckets.computeIfAbsent(
+                    new ExpenseMonthlyRollupId(tenantId, year, month, expense.getCategory()),
+                    id -> new MonthlyCategorySumDTO(year, month, id.getCategory(), BigDecimal.ZERO, 0));
+            bucket.setTotalAmount(bucket.getTotalAmount().add(expense.getAmount()));
+            bucket.setExpenseCount(bucket.getExpenseCount() + 1);
+        }
+        return new ArrayList<>(buckets.values());
+    }
+
+    private static void recordError(BulkImportResultDTO result, long line, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(new BulkImportErrorDTO(line, message));
+        } else {
+            result.setErrorsTruncated(true);
+        }
+    }
+
+    private static Expense toEntity(String tenantId, ExpenseRequestDTO row) {
+        Expense expense = new Expense();
+        expense.setTenantId(tenantId);
+        expense.setDescription(row.getDescription());
+        expense.setAmount(row.getAmount());
+        expense.setCategory(row.getCategory());
+        expense.setExpenseDate(row.getExpenseDate());
+        return expense;
+    }
+
+    // --- Export ---
+
+    // Streams every matching expense straight from the database cursor to out
+    public long exportExpenses(ExpenseFilterDTO filter, String format, OutputStream out) throws IOException {
+        try (SequenceWriter writer = FORMAT_CSV.equalsIgnoreCase(format)
+                ? CSV_MAPPER.writerFor(ExpenseResponseDTO.class).with(csvExportSchema()).writeValues(out)
+                : objectMapper.writerFor(ExpenseResponseDTO.class).withRootValueSeparator("\n").writeValues(out)) {
+            return expenseService.streamExpenses(filter, dto -> {
+                try {
+                    writer.write(dto);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private static CsvSchema csvExportSchema() {
+        CsvSchema.Builder schema = CsvSchema.builder().setUseHeader(true);
+        CSV_EXPORT_COLUMNS.forEach(schema::addColumn);
+        return schema.build();
+    }
+}
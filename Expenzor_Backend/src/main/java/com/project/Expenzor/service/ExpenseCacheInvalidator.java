@@ -0,0 +1,92 @@
+package com.project.Expenzor.service;
+
+import com.project.Expenzor.config.CacheConfig;
+import com.project.Expenzor.event.ExpenseChangedEvent;
+import com.project.Expenzor.event.ExpensesBulkChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+
+// Evicts only what a committed write can have changed: the writing tenant's entries
+// for the month(s) it touched, plus that tenant's small cross-month entries (overall
+// total, recent list, comparison ranges). Other tenants' entries are left alone.
+// Runs after commit, so a read inside the writing transaction can't re-cache the old
+// data. A read that started elsewhere before the commit can still finish after the
+// eviction and put its older result back; only the cache TTL (expireAfterWrite,
+// 10 minutes) bounds how long such an entry is served.
+@Component
+@RequiredArgsConstructor
+public class ExpenseCacheInvalidator {
+
+    private final CacheManager cacheManager;
+
+    @TransactionalEventListener
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        evictMonths(event.getTenantId(), event.getAffectedMonths());
+        evict(CacheConfig.RECENT_TRANSACTIONS, event.getTenantId()); // May list the changed row
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExpensesBulkChanged(ExpensesBulkChangedEvent event) {
+        if (event.getTenantId() == null) { // Rebuild: every tenant
+            clear(CacheConfig.MONTHLY_TOTALS);
+            clear(CacheConfig.CATEGORY_WISE);
+            clear(CacheConfig.OVERALL_TOTAL);
+            clear(CacheConfig.MONTHLY_COMPARISON);
+            clear(CacheConfig.RECENT_TRANSACTIONS);
+            return;
+        }
+        if (event.isAllMonths()) {
+            evictTenant(CacheConfig.MONTHLY_TOTALS, event.getTenantId());
+            evictTenant(CacheConfig.CATEGORY_WISE, event.getTenantId());
+            evict(CacheConfig.OVERALL_TOTAL, event.getTenantId());
+            evictTenant(CacheConfig.MONTHLY_COMPARISON, event.getTenantId());
+        } else {
+            evictMonths(event.getTenantId(), event.getMonths());
+        }
+        evict(CacheConfig.RECENT_TRANSACTIONS, event.getTenantId());
+    }
+
+    private void evictMonths(String tenantId, Collection<YearMonth> months) {
+        for (YearMonth month : months) {
+            evict(CacheConfig.MONTHLY_TOTALS, List.of(tenantId, month));
+            evict(CacheConfig.CATEGORY_WISE, List.of(tenantId, month));
+        }
+        evict(CacheConfig.OVERALL_TOTAL, tenantId);
+        evictTenant(CacheConfig.MONTHLY_COMPARISON, tenantId); // Few entries, each one query to rebuild
+    }
+
+    private void evict(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+
+    // Every [tenant, ...] entry of one tenant. Needs the Caffeine map to find them;
+    // any other cache provider falls back to clearing the whole cache.
+    private void evictTenant(String cacheName, String tenantId) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return;
+        }
+        if (cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+            caffeine.asMap().keySet().removeIf(key -> key instanceof List<?> parts && tenantId.equals(parts.get(0)));
+        } else {
+            cache.clear();
+        }
+    }
+
+    private void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
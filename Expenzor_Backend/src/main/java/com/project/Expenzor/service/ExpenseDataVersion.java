@@ -0,0 +1,88 @@
+package com.project.Expenzor.service;
+
+import com.project.Expenzor.event.ExpenseChangedEvent;
+import com.project.Expenzor.event.ExpensesBulkChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+// Per-tenant version in expense_data_versions, bumped once by every transaction that
+// writes the tenant's expenses, just before it commits. ETags built from it are valid
+// across instances and restarts: an unchanged dashboard is answered with 304 after one
+// primary-key read, and a write through any instance changes the ETag.
+@Component
+@RequiredArgsConstructor
+public class ExpenseDataVersion {
+
+    private static final Object PENDING_TENANTS = new Object(); // Transaction resource key
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // A value and the tenant's version read before it, in the same transaction
+    public record Versioned<T>(long version, T value) {
+    }
+
+    // Joins the caller's transaction, if any
+    public long current(String tenantId) {
+        List<Long> version = jdbcTemplate.queryForList(
+                "SELECT version FROM expense_data_versions WHERE tenant_id = ?", Long.class, tenantId);
+        return version.isEmpty() ? 0 : version.get(0);
+    }
+
+    // Plain @EventListener: runs inside the writing transaction, so the bump commits or
+    // rolls back with the write
+    @EventListener
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        bumpOnCommit(event.getTenantId());
+    }
+
+    @EventListener
+    public void onExpensesBulkChanged(ExpensesBulkChangedEvent event) {
+        if (event.getTenantId() == null) { // Every tenant
+            jdbcTemplate.update("UPDATE expense_data_versions SET version = version + 1");
+            return;
+        }
+        bumpOnCommit(event.getTenantId());
+    }
+
+    // Once per tenant and transaction, at the end, so the row lock is held only briefly
+    // however many expenses the transaction writes
+    @SuppressWarnings("unchecked")
+    private void bumpOnCommit(String tenantId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump(tenantId);
+            return;
+        }
+        Set<String> tenants = (Set<String>) TransactionSynchronizationManager.getResource(PENDING_TENANTS);
+        if (tenants == null) {
+            Set<String> created = new TreeSet<>(); // Sorted: concurrent batches lock rows in the same order
+            TransactionSynchronizationManager.bindResource(PENDING_TENANTS, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    created.forEach(ExpenseDataVersion.this::bump);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_TENANTS);
+                }
+            });
+            tenants = created;
+        }
+        tenants.add(tenantId);
+    }
+
+    private void bump(String tenantId) {
+        jdbcTemplate.update("INSERT INTO expense_data_versions (tenant_id, version) VALUES (?, 0) ON CONFLICT DO NOTHING",
+                tenantId);
+        jdbcTemplate.update("UPDATE expense_data_versions SET version = version + 1 WHERE tenant_id = ?", tenantId);
+    }
+}
@@ -0,0 +1,188 @@
+package com.project.Expenzor.service;
+
+import com.project.Expenzor.dto.RecurringExpenseRequestDTO;
+import com.project.Expenzor.dto.RecurringExpenseResponseDTO;
+import com.project.Expenzor.model.Expense;
+import com.project.Expenzor.model.RecurringExpense;
+import com.project.Expenzor.repository.RecurringExpenseRepo;
+import com.project.Expenzor.tenant.TenantContext;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.List;
+
+// Recurring expenses (rent, subscriptions). Each rule's due occurrences are written as
+// ordinary expenses by a scheduled job, so they show up in every list, total and budget.
+// - Batched: up to batch-size occurrences (of any rules and tenants) per transaction,
+//   written through ExpenseBulkService.saveBatch with batched inserts.
+// - Idempotent: a rule's cursor (nextDueDate) advances in the same transaction as the
+//   rows it produced, and due rules are row-locked while a batch is written, so neither
+//   a crash nor a second instance writes an occurrence twice.
+// - Catches up: every occurrence up to today is written, however long the application
+//   was down (or however far back a new rule starts: at most a year), one batch after another.
+// - Isolated: a rule whose occurrences can't be computed is stopped (nextDueDate NULL)
+//   and logged, so it doesn't roll back every batch while staying first in line.
+@Slf4j
+@Timed(value = "expenzor.service", histogram = true, percentiles = {0.5, 0.95, 0.99})
+@Service
+public class ExpenseRecurringService {
+
+    // Window for a new rule's dates, relative to today and to its start
+    private static final Period MAX_CATCH_UP = Period.ofYears(1);
+    private static final Period MAX_START_AHEAD = Period.ofYears(10);
+    private static final Period MAX_DURATION = Period.ofYears(100);
+
+    private record Batch(int written, int stopped) {
+    }
+
+    private final RecurringExpenseRepo recurringRepo;
+    private final ExpenseBulkService bulkService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public ExpenseRecurringService(RecurringExpenseRepo recurringRepo, ExpenseBulkService bulkService,
+            PlatformTransactionManager transactionManager, @Value("${expenzor.recurring.batch-size:500}") int batchSize) {
+        this.recurringRepo = recurringRepo;
+        this.bulkService = bulkService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    // --- CRUD ---
+
+    // The first occurrence is startDate; it is written by the next scheduled run
+    @Transactional
+    public RecurringExpenseResponseDTO createRecurringExpense(RecurringExpenseRequestDTO requestDTO) {
+        LocalDate today = LocalDate.now();
+        LocalDate startDate = requestDTO.getStartDate();
+        LocalDate endDate = requestDTO.getEndDate();
+        if (startDate.isBefore(today.minus(MAX_CATCH_UP)) || startDate.isAfter(today.plus(MAX_START_AHEAD))) {
+            throw new IllegalArgumentException("startDate must be at most a year before and ten years after today");
+        }
+        if (endDate != null && endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("endDate must not be before startDate");
+        }
+        if (endDate != null && endDate.isAfter(startDate.plus(MAX_DURATION))) {
+            throw new IllegalArgumentException("endDate must be at most 100 years after startDate");
+        }
+        RecurringExpense rule = new RecurringExpense();
+        rule.setTenantId(TenantContext.current());
+        rule.setDescription(requestDTO.getDescription());
+        rule.setAmount(requestDTO.getAmount());
+        rule.setCategory(requestDTO.getCategory());
+        rule.setFrequency(requestDTO.getFrequency());
+        rule.setIntervalCount(requestDTO.getIntervalCount());
+        rule.setStartDate(requestDTO.getStartDate());
+        rule.setEndDate(requestDTO.getEndDate());
+        rule.setNextDueDate(requestDTO.getStartDate());
+        return mapToResponseDTO(recurringRepo.save(rule));
+    }
+
+    @Transactional(readOnly = true)
+    public List<RecurringExpenseResponseDTO> getRecurringExpenses() {
+        return recurringRepo.findByTenantIdOrderById(TenantContext.current()).stream()
+                .map(ExpenseRecurringService::mapToResponseDTO)
+                .toList();
+    }
+
+    // Stops the rule; expenses it already produced are kept
+    @Transactional
+    public void deleteRecurringExpense(Long id) {
+        RecurringExpense rule = recurringRepo.findByIdAndTenantId(id, TenantContext.current())
+                .orElseThrow(() -> new RuntimeException("Recurring expense not found with id: " + id));
+        recurringRepo.delete(rule);
+    }
+
+    // --- Materialization ---
+
+    // Also runs right after startup, which is where catching up after downtime happens
+    @Scheduled(fixedDelayString = "${expenzor.recurring.interval:1m}")
+    public int materializeDue() {
+        LocalDate today = LocalDate.now();
+        int total = 0;
+        Batch batch;
+        do {
+            batch = materializeBatch(today);
+            total += batch.written();
+        } while (batch.written() > 0 || batch.stopped() > 0);
+        if (total > 0) {
+            log.info("Wrote {} recurring expense occurrences due up to {}", total, today);
+        }
+        return total;
+    }
+
+    // One transaction: lock the rules due first, turn their due occurrences into expenses
+    // (at most batchSize), advance the cursors and save it all together. A rule with more
+    // due occurrences than fit stays due and continues in the next batch. A rule that
+    // throws is stopped instead, without the occurrences it produced in this batch.
+    private Batch materializeBatch(LocalDate today) {
+        return transactionTemplate.execute(status -> {
+            List<Expense> occurrences = new ArrayList<>();
+            int stopped = 0;
+            for (RecurringExpense rule : recurringRepo.findDueLocked(today, Limit.of(batchSize))) {
+                int firstOccurrence = occurrences.size();
+                LocalDate nextDueDate = rule.getNextDueDate();
+                long occurrenceCount = rule.getOccurrenceCount();
+                try {
+                    while (occurrences.size() < batchSize && rule.getNextDueDate() != null
+                            && !rule.getNextDueDate().isAfter(today)) {
+                        occurrences.add(toExpense(rule, rule.getNextDueDate()));
+                        rule.advance();
+                    }
+                } catch (RuntimeException e) { // e.g. an occurrence past the range of LocalDate
+                    occurrences.subList(firstOccurrence, occurrences.size()).clear();
+                    rule.setOccurrenceCount(occurrenceCount);
+                    rule.setNextDueDate(null);
+                    stopped++;
+                    log.warn("Stopped recurring expense {} of tenant {}: the occurrences from {} can't be written",
+                            rule.getId(), rule.getTenantId(), nextDueDate, e);
+                    continue;
+                }
+                if (occurrences.size() == batchSize) {
+                    break;
+                }
+            }
+            if (!occurrences.isEmpty()) {
+                bulkService.saveBatch(occurrences, () -> { }); // Its flush writes the advanced rules too
+            }
+            return new Batch(occurrences.size(), stopped);
+        });
+    }
+
+    private static Expense toExpense(RecurringExpense rule, LocalDate date) {
+        Expense expense = new Expense();
+        expense.setTenantId(rule.getTenantId());
+        expense.setDescription(rule.getDescription());
+        expense.setAmount(rule.getAmount());
+        expense.setCategory(rule.getCategory());
+        expense.setExpenseDate(date);
+        return expense;
+    }
+
+    private static RecurringExpenseResponseDTO mapToResponseDTO(RecurringExpense rule) {
+        RecurringExpenseResponseDTO dto = new RecurringExpenseResponseDTO();
+        dto.setId(rule.getId());
+        dto.setDescription(rule.getDescription());
+        dto.setAmount(rule.getAmount());
+        dto.setCategory(rule.getCategory());
+        dto.setFrequency(rule.getFrequency().name());
+        dto.setIntervalCount(rule.getIntervalCount());
+        dto.setStartDate(rule.getStartDate());
+        dto.setEndDate(rule.getEndDate());
+        dto.setNextDueDate(rule.getNextDueDate());
+        dto.setOccurrenceCount(rule.getOccurrenceCount());
+        dto.setCreatedAt(rule.getCreatedAt());
+        dto.setUpdatedAt(rule.getUpdatedAt());
+        return dto;
+    }
+}
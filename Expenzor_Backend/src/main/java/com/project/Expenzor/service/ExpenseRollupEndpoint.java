@@ -0,0 +1,30 @@
+package com.project.Expenzor.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.jmx.annotation.JmxEndpoint;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.util.Map;
+
+// Operator-only reconcile of the monthly rollups for every tenant (also runs nightly).
+// JMX only, never on the unauthenticated web port: needs spring.jmx.enabled=true, and
+// management.endpoints.jmx.exposure.include lists it. start and end are yyyy-MM; with
+// both given only the months between them are reconciled.
+@Component
+@JmxEndpoint(id = "rollups")
+@RequiredArgsConstructor
+public class ExpenseRollupEndpoint {
+
+    private final ExpenseRollupService rollupService;
+
+    @WriteOperation
+    public Map<String, Object> rebuild(@Nullable String start, @Nullable String end) {
+        int corrected = start != null && end != null
+                ? rollupService.rebuild(YearMonth.parse(start), YearMonth.parse(end))
+                : rollupService.rebuild();
+        return Map.of("corrected", corrected);
+    }
+}
@@ -0,0 +1,122 @@
+package com.project.Expenzor.service;
+
+import com.project.Expenzor.dto.MonthlyCategorySumDTO;
+import com.project.Expenzor.dto.RollupDriftDTO;
+import com.project.Expenzor.event.ExpensesBulkChangedEvent;
+import com.project.Expenzor.repository.ExpenseMonthlyRollupRepo;
+import com.project.Expenzor.repository.ExpenseRepo;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Maintains the expense_monthly_rollups table that backs the dashboard queries.
+// Incremental updates are per tenant; rebuilds (reconciles) cover every tenant at once.
+@Slf4j
+@Timed(value = "expenzor.service", histogram = true, percentiles = {0.5, 0.95, 0.99})
+@Service
+@RequiredArgsConstructor
+public class ExpenseRollupService {
+
+    private final ExpenseMonthlyRollupRepo rollupRepo;
+    private final ExpenseRepo expenseRepo;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Add an expense's amount to its (tenant, month, category) bucket.
+    // MANDATORY: must join the transaction that writes the expense itself.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void add(String tenantId, LocalDate expenseDate, String category, BigDecimal amount) {
+        int year = expenseDate.getYear();
+        int month = expenseDate.getMonthValue();
+        rollupRepo.ensureBucket(tenantId, year, month, category);
+        rollupRepo.increment(tenantId, year, month, category, amount, 1);
+    }
+
+    // Add pre-aggregated (month, category) sums, e.g. one chunk of a bulk import
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addAll(String tenantId, Collection<MonthlyCategorySumDTO> sums) {
+        for (MonthlyCategorySumDTO sum : sums) {
+            rollupRepo.ensureBucket(tenantId, sum.getYear(), sum.getMonth(), sum.getCategory());
+            rollupRepo.increment(tenantId, sum.getYear(), sum.getMonth(), sum.getCategory(), sum.getTotalAmount(), sum.getExpenseCount());
+        }
+    }
+
+    // Take an expense's amount back out of its bucket, dropping the bucket once empty
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void remove(String tenantId, LocalDate expenseDate, String category, BigDecimal amount) {
+        int year = expenseDate.getYear();
+        int month = expenseDate.getMonthValue();
+        if (rollupRepo.increment(tenantId, year, month, category, amount.negate(), -1) == 0) {
+            log.warn("No rollup bucket for {} {}-{} / {}; run a rebuild to reconcile", tenantId, year, month, category);
+            return;
+        }
+        rollupRepo.deleteIfEmpty(tenantId, year, month, category);
+    }
+
+    // Bring every bucket back in line with the expenses table. Rather than emptying and
+    // refilling the table (which loses or double-counts writes committing meanwhile),
+    // this reads the drift of each bucket in one statement and adds it to the bucket the
+    // same way add/remove do, so concurrent writers are neither blocked nor overwritten.
+    // Returns the number of buckets corrected (0 when nothing had drifted).
+    @Transactional
+    public int rebuild() {
+        int buckets = apply(rollupRepo.findDrift());
+        log.info("Reconciled expense rollups: {} buckets corrected", buckets);
+        return buckets;
+    }
+
+    // Same, only for the buckets between two months (inclusive)
+    @Transactional
+    public int rebuild(YearMonth start, YearMonth end) {
+        int buckets = apply(rollupRepo.findDriftBetween(start.atDay(1), end.atEndOfMonth(),
+                start.getYear(), start.getMonthValue(), end.getYear(), end.getMonthValue()));
+        log.info("Reconciled expense rollups {}..{}: {} buckets corrected", start, end, buckets);
+        return buckets;
+    }
+
+    private int apply(List<RollupDriftDTO> drift) {
+        Map<String, Set<YearMonth>> monthsByTenant = new HashMap<>();
+        for (RollupDriftDTO bucket : drift) {
+            rollupRepo.ensureBucket(bucket.getTenantId(), bucket.getYear(), bucket.getMonth(), bucket.getCategory());
+            rollupRepo.increment(bucket.getTenantId(), bucket.getYear(), bucket.getMonth(), bucket.getCategory(),
+                    bucket.getAmount(), bucket.getExpenseCount());
+            rollupRepo.deleteIfEmpty(bucket.getTenantId(), bucket.getYear(), bucket.getMonth(), bucket.getCategory());
+            monthsByTenant.computeIfAbsent(bucket.getTenantId(), tenantId -> new HashSet<>())
+                    .add(YearMonth.of(bucket.getYear(), bucket.getMonth()));
+        }
+        monthsByTenant.forEach((tenantId, months) ->
+                eventPublisher.publishEvent(ExpensesBulkChangedEvent.forMonths(tenantId, months)));
+        return drift.size();
+    }
+
+    @Scheduled(cron = "${expenzor.rollup.reconcile-cron:0 30 3 * * *}")
+    @Transactional
+    public void reconcile() {
+        rebuild();
+    }
+
+    // Backfill on first start against an existing database that predates the rollup table
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillIfEmpty() {
+        if (rollupRepo.count() == 0 && expenseRepo.count() > 0) {
+            rebuild();
+        }
+    }
+}
@@ -1,26 +1,69 @@
 package com.project.Expenzor.service;
 
+import com.project.Expenzor.config.CacheConfig;
+import com.project.Expenzor.dto.CalendarHeatmapDTO;
 import com.project.Expenzor.dto.CategorySumDTO;
+import com.project.Expenzor.dto.DailySumDTO;
+import com.project.Expenzor.dto.DashboardDTO;
+import com.project.Expenzor.dto.ExpenseField;
+import com.project.Expenzor.dto.ExpenseFilterDTO;
+import com.project.Expenzor.dto.ExpensePageDTO;
 import com.project.Expenzor.dto.ExpenseRequestDTO;
 import com.project.Expenzor.dto.ExpenseResponseDTO;
+import com.project.Expenzor.dto.ExpenseSearchPageDTO;
+import com.project.Expenzor.dto.MonthlyCategorySumDTO;
 import com.project.Expenzor.dto.MonthlySummaryDTO; // Import if you use this DTO
+import com.project.Expenzor.event.ExpenseChangedEvent;
+import com.project.Expenzor.event.ExpenseSnapshot;
 import com.project.Expenzor.model.Expense;
+import com.project.Expenzor.repository.ExpenseMonthlyRollupRepo;
 import com.project.Expenzor.repository.ExpenseRepo;
+import com.project.Expenzor.repository.ExpenseSpecifications;
+import com.project.Expenzor.tenant.TenantContext;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional; // Import for transactional methods
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter; // For formatting month names
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors; // For stream operations
+import java.util.stream.Stream;
 
+@Timed(value = "expenzor.service", histogram = true, percentiles = {0.5, 0.95, 0.99})
 @Service
 @RequiredArgsConstructor // Lombok for constructor injection of final fields
 public class ExpenseService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_CALENDAR_DAYS = 1096; // Three years
+    private static final int MAX_RANGE_MONTHS = 120; // Ten years
+
     private final ExpenseRepo expenseRepo;
+    private final ExpenseMonthlyRollupRepo rollupRepo;
+    private final ExpenseRollupService rollupService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ExpenseDataVersion dataVersion;
+
+    @Value("${expenzor.search.count-limit:10000}")
+    private int searchCountLimit;
 
     // --- CRUD Operations ---
 
@@ -29,6 +72,7 @@ public class ExpenseService {
     public ExpenseResponseDTO addExpense(ExpenseRequestDTO requestDTO) {
         // Map DTO to Entity
         Expense expense = new Expense();
+        expense.setTenantId(TenantContext.current());
         expense.setDescription(requestDTO.getDescription());
         expense.setAmount(requestDTO.getAmount());
         expense.setCategory(requestDTO.getCategory());
@@ -36,23 +80,115 @@ public class ExpenseService {
         // createdAt and updatedAt are handled by @PrePersist
 
         Expense savedExpense = expenseRepo.save(expense);
+        rollupService.add(savedExpense.getTenantId(), savedExpense.getExpenseDate(), savedExpense.getCategory(),
+                savedExpense.getAmount());
+        eventPublisher.publishEvent(new ExpenseChangedEvent(ExpenseChangedEvent.Type.CREATED, savedExpense.getTenantId(),
+                savedExpense.getId(), null, ExpenseSnapshot.of(savedExpense)));
 
         // Map Entity back to Response DTO
         return mapToExpenseResponseDTO(savedExpense);
     }
 
-    // Get All Expenses (potentially for a transactions page, returning DTOs)
-    @Transactional(readOnly = true) // Read-only for performance optimization
-    public List<ExpenseResponseDTO> getAllExpenses() {
-        return expenseRepo.findAll().stream()
-                .map(this::mapToExpenseResponseDTO)
+    // Get a page of expenses (for the transactions page), newest expense date first.
+    // Keyset pagination: the cursor encodes the (expenseDate, id) of the last row
+    // returned, so every page costs the same no matter how deep the client scrolls.
+    @Transactional(readOnly = true)
+    public ExpensePageDTO getExpensePage(ExpenseFilterDTO filter, String cursor, int size) {
+        List<Expense> rows = fetchKeysetPage(ExpenseSpecifications.matching(TenantContext.current(), filter), cursor, size);
+        return new ExpensePageDTO(toResponseDTOs(rows, size), nextCursor(rows, size));
+    }
+
+    // Search by any combination of date range, categories, amount range and description
+    // text. Paged like getExpensePage; the total is counted exactly, capped at
+    // searchCountLimit (ESTIMATE: cheap even when millions of rows match) or skipped.
+    @Transactional(readOnly = true)
+    public ExpenseSearchPageDTO searchExpenses(ExpenseFilterDTO filter, String cursor, int size, CountMode countMode) {
+        if (filter.getFrom() != null && filter.getTo() != null && filter.getFrom().isAfter(filter.getTo())) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (filter.getMinAmount() != null && filter.getMaxAmount() != null
+                && filter.getMinAmount().compareTo(filter.getMaxAmount()) > 0) {
+            throw new IllegalArgumentException("minAmount must not be greater than maxAmount");
+        }
+        Specification<Expense> spec = ExpenseSpecifications.matching(TenantContext.current(), filter);
+        List<Expense> rows = fetchKeysetPage(spec, cursor, size);
+
+        Long totalCount = null;
+        boolean countExact = true;
+        if (countMode == CountMode.EXACT) {
+            totalCount = expenseRepo.count(spec);
+        } else if (countMode == CountMode.ESTIMATE) {
+            totalCount = expenseRepo.countUpTo(spec, searchCountLimit + 1);
+            countExact = totalCount <= searchCountLimit;
+            totalCount = Math.min(totalCount, searchCountLimit);
+        }
+        return new ExpenseSearchPageDTO(toResponseDTOs(rows, size), nextCursor(rows, size), totalCount, countExact);
+    }
+
+    public enum CountMode { EXACT, ESTIMATE, NONE }
+
+    // One keyset page plus one extra row, which tells whether there is a next page
+    private List<Expense> fetchKeysetPage(Specification<Expense> spec, String cursor, int size) {
+        if (cursor != null && !cursor.isBlank()) {
+            spec = spec.and(decodeCursor(cursor));
+        }
+        return expenseRepo.findBy(spec, query -> query
+                .sortBy(ExpenseSpecifications.KEYSET_SORT)
+                .limit(pageSize(size) + 1)
+                .all());
+    }
+
+    private static int pageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    private static List<ExpenseResponseDTO> toResponseDTOs(List<Expense> rows, int size) {
+        return rows.stream()
+                .limit(pageSize(size))
+                .map(ExpenseService::mapToExpenseResponseDTO)
                 .collect(Collectors.toList());
     }
 
+    private String nextCursor(List<Expense> rows, int size) {
+        int pageSize = pageSize(size);
+        return rows.size() > pageSize ? encodeCursor(rows.get(pageSize - 1)) : null;
+    }
+
+    // Stream every matching expense to the sink, row by row, inside one read-only
+    // transaction. Heap use stays flat regardless of table size. Returns the row count.
+    @Transactional(readOnly = true)
+    public long streamExpenses(ExpenseFilterDTO filter, Consumer<ExpenseResponseDTO> sink) {
+        try (Stream<Expense> rows = expenseRepo.streamAll(ExpenseSpecifications.matching(TenantContext.current(), filter),
+                ExpenseSpecifications.KEYSET_SORT)) {
+            long count = 0;
+            for (Expense expense : (Iterable<Expense>) rows::iterator) {
+                sink.accept(mapToExpenseResponseDTO(expense));
+                count++;
+            }
+            return count;
+        }
+    }
+
+    // Lean variant of streamExpenses for the large list endpoints: only the requested
+    // columns, read as plain values (no entities) and handed to the sink as they come
+    // off the cursor, without mapping to ExpenseResponseDTO. Returns the row count.
+    @Transactional(readOnly = true)
+    public long streamExpenseColumns(ExpenseFilterDTO filter, List<ExpenseField> fields, Consumer<Object[]> sink) {
+        try (Stream<Object[]> rows = expenseRepo.streamColumns(ExpenseSpecifications.matching(TenantContext.current(), filter),
+                ExpenseSpecifications.KEYSET_SORT, fields)) {
+            long count = 0;
+            for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                sink.accept(row);
+                count++;
+            }
+            return count;
+        }
+    }
+
     // Get Expense by ID
     @Transactional(readOnly = true)
     public ExpenseResponseDTO getExpenseById(Long id) {
-        Expense expense = expenseRepo.findById(id)
+        Expense expense = expenseRepo.findByIdAndTenantId(id, TenantContext.current())
                 .orElseThrow(() -> new RuntimeException("Expense not found with id: " + id)); // Use a more specific
                                                                                               // exception if possible
         return mapToExpenseResponseDTO(expense);
@@ -61,9 +197,14 @@ public class ExpenseService {
     // Update Expense
     @Transactional
     public ExpenseResponseDTO updateExpense(Long id, ExpenseRequestDTO requestDTO) {
-        Expense existingExpense = expenseRepo.findById(id)
+        String tenantId = TenantContext.current();
+        Expense existingExpense = expenseRepo.findByIdAndTenantId(id, tenantId)
                 .orElseThrow(() -> new RuntimeException("Expense not found with id: " + id));
 
+        // Move the old amount out of its rollup bucket before the fields change
+        ExpenseSnapshot before = ExpenseSnapshot.of(existingExpense);
+        rollupService.remove(tenantId, before.getExpenseDate(), before.getCategory(), before.getAmount());
+
         // Update fields from DTO
         existingExpense.setDescription(requestDTO.getDescription());
         existingExpense.setAmount(requestDTO.getAmount());
@@ -72,6 +213,9 @@ public class ExpenseService {
         // updatedAt is handled by @PreUpdate
 
         Expense updatedExpense = expenseRepo.save(existingExpense);
+        rollupService.add(tenantId, updatedExpense.getExpenseDate(), updatedExpense.getCategory(), updatedExpense.getAmount());
+        eventPublisher.publishEvent(new ExpenseChangedEvent(ExpenseChangedEvent.Type.UPDATED, tenantId, id,
+                before, ExpenseSnapshot.of(updatedExpense)));
         return mapToExpenseResponseDTO(updatedExpense);
     }
 
@@ -81,22 +225,31 @@ public class ExpenseService {
         if (id == null) {
             throw new IllegalArgumentException("Expense ID cannot be null");
         }
-        if (!expenseRepo.existsById(id)) { // Check if it exists before deleting
-            throw new RuntimeException("Expense not found with id: " + id + " for deletion.");
-        }
-        expenseRepo.deleteById(id);
+        String tenantId = TenantContext.current();
+        Expense expense = expenseRepo.findByIdAndTenantId(id, tenantId) // Load it: the rollup needs its date, category and amount
+                .orElseThrow(() -> new RuntimeException("Expense not found with id: " + id + " for deletion."));
+        expenseRepo.delete(expense);
+        rollupService.remove(tenantId, expense.getExpenseDate(), expense.getCategory(), expense.getAmount());
+        eventPublisher.publishEvent(new ExpenseChangedEvent(ExpenseChangedEvent.Type.DELETED, tenantId, id,
+                ExpenseSnapshot.of(expense), null));
     }
 
     // --- Dashboard & Reporting Requirements ---
 
+    // Dashboard reads are served from the monthly rollup table (see ExpenseRollupService),
+    // so their cost depends on the number of categories, not the size of the history.
+    // Cache keys start with the tenant (CacheConfig.TENANT_KEY).
+
     // 1. See total money spent for that particular month
+    @Cacheable(cacheNames = CacheConfig.MONTHLY_TOTALS, key = "{" + CacheConfig.TENANT_KEY + ", T(java.time.YearMonth).of(#year, #month)}")
     @Transactional(readOnly = true)
     public BigDecimal getTotalMonthlyExpense(int year, int month) {
-        BigDecimal total = expenseRepo.sumAmountByMonthAndYear(year, month);
+        BigDecimal total = rollupRepo.sumAmountByMonthAndYear(TenantContext.current(), year, month);
         return total != null ? total : BigDecimal.ZERO; // Handle null if no expenses found
     }
 
-    // Convenience method for current month
+    // Convenience method for current month (shares cache entries with getTotalMonthlyExpense)
+    @Cacheable(cacheNames = CacheConfig.MONTHLY_TOTALS, key = "{" + CacheConfig.TENANT_KEY + ", T(java.time.YearMonth).now()}")
     @Transactional(readOnly = true)
     public BigDecimal getCurrentMonthTotalExpense() {
         LocalDate today = LocalDate.now();
@@ -104,60 +257,187 @@ public class ExpenseService {
     }
 
     // 2. See the category-wise expenditure for current month
+    @Cacheable(cacheNames = CacheConfig.CATEGORY_WISE, key = "{" + CacheConfig.TENANT_KEY + ", T(java.time.YearMonth).now()}")
     @Transactional(readOnly = true)
     public List<CategorySumDTO> getCategoryWiseExpenditureForCurrentMonth() {
         LocalDate today = LocalDate.now();
-        return expenseRepo.findCategoryWiseExpenditureByMonthAndYear(today.getYear(), today.getMonthValue());
+        return rollupRepo.findCategoryWiseExpenditureByMonthAndYear(TenantContext.current(), today.getYear(),
+                today.getMonthValue());
     }
 
     // 3. See the recent transactions that were added to the DB
+    @Cacheable(cacheNames = CacheConfig.RECENT_TRANSACTIONS, key = CacheConfig.TENANT_KEY)
     @Transactional(readOnly = true)
     public List<ExpenseResponseDTO> getRecentTransactions() {
-        // Using findTop5ByOrderByCreatedAtDesc() from repository
-        return expenseRepo.findTop5ByOrderByCreatedAtDesc().stream()
-                .map(this::mapToExpenseResponseDTO)
+        // Using findTop5ByTenantIdOrderByCreatedAtDesc() from repository
+        return expenseRepo.findTop5ByTenantIdOrderByCreatedAtDesc(TenantContext.current()).stream()
+                .map(ExpenseService::mapToExpenseResponseDTO)
                 .collect(Collectors.toList());
     }
 
     // 4. See the total money spent in the previous months (e.g., last 3 months
-    // including current)
+    // including current), oldest first
+    @Cacheable(cacheNames = CacheConfig.MONTHLY_COMPARISON, key = "{" + CacheConfig.TENANT_KEY + ", #numberOfMonths + '@' + T(java.time.YearMonth).now()}")
     @Transactional(readOnly = true)
     public List<MonthlySummaryDTO> getPreviousMonthsComparison(int numberOfMonths) {
-        List<MonthlySummaryDTO> monthlySummaries = new java.util.ArrayList<>();
-        LocalDate currentDate = LocalDate.now();
-        DateTimeFormatter monthFormatter = DateTimeFormatter.ofPattern("MMM yyyy"); // e.g., "Jun 2025"
+        YearMonth current = YearMonth.now();
+        return getMonthlyTotalsBetween(windowStart(current, numberOfMonths), current);
+    }
+
+    // Monthly totals from start to end (inclusive) in one query; months without
+    // expenses are filled in with zero
+    @Cacheable(cacheNames = CacheConfig.MONTHLY_COMPARISON, key = "{" + CacheConfig.TENANT_KEY + ", #start + '..' + #end}")
+    @Transactional(readOnly = true)
+    public List<MonthlySummaryDTO> getMonthlyTotalsBetween(YearMonth start, YearMonth end) {
+        return toMonthlySummaries(findBucketsBetween(start, end), start, end);
+    }
 
-        for (int i = 0; i < numberOfMonths; i++) {
-            LocalDate monthToQuery = currentDate.minusMonths(i);
-            int year = monthToQuery.getYear();
-            int month = monthToQuery.getMonthValue();
-            BigDecimal total = getTotalMonthlyExpense(year, month); // Reuse the existing method
+    private static List<MonthlySummaryDTO> toMonthlySummaries(List<MonthlyCategorySumDTO> buckets,
+            YearMonth start, YearMonth end) {
+        Map<YearMonth, BigDecimal> totals = new HashMap<>();
+        for (MonthlyCategorySumDTO bucket : buckets) {
+            totals.merge(YearMonth.of(bucket.getYear(), bucket.getMonth()), bucket.getTotalAmount(), BigDecimal::add);
+        }
 
+        DateTimeFormatter monthFormatter = DateTimeFormatter.ofPattern("MMM yyyy"); // e.g., "Jun 2025"
+        List<MonthlySummaryDTO> monthlySummaries = new ArrayList<>();
+        for (YearMonth month = start; !month.isAfter(end); month = month.plusMonths(1)) {
             monthlySummaries.add(new MonthlySummaryDTO(
-                    monthToQuery.format(monthFormatter), // Formatted month name
-                    total));
+                    month.format(monthFormatter), // Formatted month name
+                    totals.getOrDefault(month, BigDecimal.ZERO)));
         }
-        // Reverse the list to show oldest first if desired by frontend, or adjust loop.
-        // For dashboard comparison, often current month is last, so might reverse.
-        java.util.Collections.reverse(monthlySummaries);
         return monthlySummaries;
     }
 
+    // Whole dashboard in one read-only transaction (one connection) and three queries:
+    // the rollup buckets for the comparison window, which also yield the current
+    // month's total and category split, the overall total, and the recent list.
+    @Transactional(readOnly = true)
+    public DashboardDTO getDashboard(int numberOfMonths) {
+        YearMonth current = YearMonth.now();
+        YearMonth start = windowStart(current, numberOfMonths);
+        List<MonthlyCategorySumDTO> buckets = findBucketsBetween(start, current);
+
+        BigDecimal currentMonthTotal = BigDecimal.ZERO;
+        List<CategorySumDTO> categoryWise = new ArrayList<>();
+        for (MonthlyCategorySumDTO bucket : buckets) {
+            if (bucket.getYear() == current.getYear() && bucket.getMonth() == current.getMonthValue()) {
+                currentMonthTotal = currentMonthTotal.add(bucket.getTotalAmount());
+                categoryWise.add(new CategorySumDTO(bucket.getCategory(), bucket.getTotalAmount()));
+            }
+        }
+
+        BigDecimal overallTotal = rollupRepo.sumAllExpenseAmounts(TenantContext.current());
+        List<ExpenseResponseDTO> recent = expenseRepo.findTop5ByTenantIdOrderByCreatedAtDesc(TenantContext.current()).stream()
+                .map(ExpenseService::mapToExpenseResponseDTO)
+                .collect(Collectors.toList());
+        return new DashboardDTO(overallTotal != null ? overallTotal : BigDecimal.ZERO, currentMonthTotal,
+                categoryWise, recent, toMonthlySummaries(buckets, start, current));
+    }
+
+    // The tenant's data version, for If-None-Match checks (see ExpenseDataVersion)
+    @Transactional(readOnly = true)
+    public long getDataVersion() {
+        return dataVersion.current(TenantContext.current());
+    }
+
+    // Runs read (a read-only ExpenseService call) in one transaction with the tenant's
+    // version read first. One transaction is one connection, so even with read replicas
+    // the version is never newer than the data it labels, only possibly older.
+    @Transactional(readOnly = true)
+    public <T> ExpenseDataVersion.Versioned<T> readVersioned(Supplier<T> read) {
+        long version = dataVersion.current(TenantContext.current());
+        return new ExpenseDataVersion.Versioned<>(version, read.get());
+    }
+
+    // Per-category totals for every month from start to end (inclusive), oldest first
+    @Transactional(readOnly = true)
+    public List<MonthlyCategorySumDTO> getMonthlyCategoryBreakdownBetween(YearMonth start, YearMonth end) {
+        List<MonthlyCategorySumDTO> buckets = new ArrayList<>(findBucketsBetween(start, end));
+        buckets.sort(Comparator.comparingInt(MonthlyCategorySumDTO::getYear)
+                .thenComparingInt(MonthlyCategorySumDTO::getMonth)
+                .thenComparing(MonthlyCategorySumDTO::getCategory));
+        return buckets;
+    }
+
+    // The last numberOfMonths months up to current (at least one)
+    private static YearMonth windowStart(YearMonth current, int numberOfMonths) {
+        if (numberOfMonths > MAX_RANGE_MONTHS) {
+            throw new IllegalArgumentException("Month range is limited to " + MAX_RANGE_MONTHS + " months");
+        }
+        return current.minusMonths(Math.max(numberOfMonths, 1) - 1L);
+    }
+
+    // Every caller zero-fills or lists the months in between, so the range is capped
+    private List<MonthlyCategorySumDTO> findBucketsBetween(YearMonth start, YearMonth end) {
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("Start month " + start + " is after end month " + end);
+        }
+        if (ChronoUnit.MONTHS.between(start, end) >= MAX_RANGE_MONTHS) {
+            throw new IllegalArgumentException("Month range is limited to " + MAX_RANGE_MONTHS + " months");
+        }
+        return rollupRepo.findBucketsBetween(TenantContext.current(), start.getYear(), start.getMonthValue(),
+                end.getYear(), end.getMonthValue());
+    }
+
+    @Cacheable(cacheNames = CacheConfig.CATEGORY_WISE, key = "{" + CacheConfig.TENANT_KEY + ", T(java.time.YearMonth).of(#year, #month)}")
     @Transactional(readOnly = true)
     public List<CategorySumDTO> getCategoryWiseExpenditureByMonthAndYear(int year, int month) {
-        return expenseRepo.findCategoryWiseExpenditureByMonthAndYear(year, month);
+        return rollupRepo.findCategoryWiseExpenditureByMonthAndYear(TenantContext.current(), year, month);
     }
 
     // 5. Calendar click: Redirect to transaction page for that particular date
     @Transactional(readOnly = true)
     public List<ExpenseResponseDTO> getExpensesByDate(LocalDate date) {
-        return expenseRepo.findByExpenseDate(date).stream()
-                .map(this::mapToExpenseResponseDTO)
+        return expenseRepo.findByTenantIdAndExpenseDate(TenantContext.current(), date).stream()
+                .map(ExpenseService::mapToExpenseResponseDTO)
                 .collect(Collectors.toList());
     }
 
+    // Calendar heatmap: per-day total and count for from..to in one grouped query,
+    // instead of one /by-date call (and a list of entities) per day
+    @Transactional(readOnly = true)
+    public CalendarHeatmapDTO getCalendarHeatmap(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        long days = ChronoUnit.DAYS.between(from, to) + 1;
+        if (days > MAX_CALENDAR_DAYS) {
+            throw new IllegalArgumentException("Calendar range is limited to " + MAX_CALENDAR_DAYS + " days");
+        }
+        BigDecimal[] totals = new BigDecimal[(int) days];
+        Arrays.fill(totals, BigDecimal.ZERO);
+        int[] counts = new int[(int) days];
+        BigDecimal maxTotal = BigDecimal.ZERO;
+        for (DailySumDTO day : expenseRepo.sumAmountByDayBetween(TenantContext.current(), from, to)) {
+            int offset = (int) ChronoUnit.DAYS.between(from, day.getExpenseDate());
+            totals[offset] = day.getTotalAmount();
+            counts[offset] = (int) day.getExpenseCount();
+            maxTotal = maxTotal.max(day.getTotalAmount());
+        }
+        return new CalendarHeatmapDTO(from, to, totals, counts, maxTotal);
+    }
+
+    // --- Helpers for keyset cursors ---
+    private String encodeCursor(Expense last) {
+        String raw = last.getExpenseDate() + ":" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Specification<Expense> decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf(':');
+            return ExpenseSpecifications.after(LocalDate.parse(raw.substring(0, sep)),
+                    Long.parseLong(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+
     // --- Helper Method for DTO Mapping ---
-    private ExpenseResponseDTO mapToExpenseResponseDTO(Expense expense) {
+    // Package-private so the JMH benchmarks (src/jmh/java) can measure it directly
+    static ExpenseResponseDTO mapToExpenseResponseDTO(Expense expense) {
         ExpenseResponseDTO dto = new ExpenseResponseDTO();
         dto.setId(expense.getId());
         dto.setDescription(expense.getDescription());
@@ -171,9 +451,10 @@ public class ExpenseService {
 
     // You might also need a method to calculate total amount for the dashboard's
     // main display
+    @Cacheable(cacheNames = CacheConfig.OVERALL_TOTAL, key = CacheConfig.TENANT_KEY)
     @Transactional(readOnly = true)
     public BigDecimal getTotalOverallExpense() {
-        BigDecimal total = expenseRepo.sumAllExpenseAmounts();
+        BigDecimal total = rollupRepo.sumAllExpenseAmounts(TenantContext.current());
         return total != null ? total : BigDecimal.ZERO;
     }
 }
\ No newline at end of file
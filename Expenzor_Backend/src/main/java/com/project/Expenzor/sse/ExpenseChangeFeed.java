@@ -0,0 +1,394 @@
+package com.project.Expenzor.sse;
+
+import com.project.Expenzor.dto.BudgetStatusDTO;
+import com.project.Expenzor.dto.ExpenseChangeDTO;
+import com.project.Expenzor.dto.ExpenseDeltaDTO;
+import com.project.Expenzor.event.BudgetStatusChangedEvent;
+import com.project.Expenzor.event.ExpenseChangedEvent;
+import com.project.Expenzor.event.ExpenseSnapshot;
+import com.project.Expenzor.event.ExpensesBulkChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Fans committed expense changes out to /api/expense/events subscribers (server-sent
+// events) of the same tenant, each with the deltas it makes to month totals and
+// category sums, so dashboards patch their state instead of re-polling.
+// - Connections are async SseEmitters: an idle subscriber holds no thread. A virtual
+//   thread runs only while a subscriber has messages to write.
+// - Each subscriber buffers at most client-buffer messages; a slow one has its backlog
+//   folded into a single COALESCED message with the same net deltas.
+// - The last history-size messages are kept in a ring, so a reconnect with
+//   Last-Event-ID resumes where it left off; older ids (or ids from before a restart)
+//   get a RESYNC telling the client to re-fetch.
+// - A comment line every heartbeat keeps proxies from closing idle connections and
+//   detects clients that went away.
+@Slf4j
+@Component
+public class ExpenseChangeFeed {
+
+    private static final String COALESCED = "COALESCED";
+    private static final String RESYNC = "RESYNC";
+    private static final String BUDGET = "BUDGET";
+
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final Entry[] history;
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36); // Ids restart with the process
+    private long lastSequence; // Guarded by this
+    private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService senders;
+    private final Counter coalesced;
+
+    @Autowired
+    public ExpenseChangeFeed(MeterRegistry meterRegistry,
+            @Value("${expenzor.events.history-size:10000}") int historySize,
+            @Value("${expenzor.events.client-buffer:256}") int bufferSize,
+            @Value("${expenzor.events.timeout:30m}") Duration timeout) {
+        this(meterRegistry, historySize, bufferSize, timeout, Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    // senders runs each subscriber's drain loop; tests pass one they step by hand
+    ExpenseChangeFeed(MeterRegistry meterRegistry, int historySize, int bufferSize, Duration timeout,
+            ExecutorService senders) {
+        if (historySize <= 0) { // The ring is indexed modulo its size
+            throw new IllegalArgumentException("expenzor.events.history-size must be positive, was " + historySize);
+        }
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("expenzor.events.client-buffer must be positive, was " + bufferSize);
+        }
+        this.history = new Entry[historySize];
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeout.toMillis();
+        this.senders = senders;
+        this.coalesced = Counter.builder("expenzor.events.coalesced")
+                .description("Subscriber backlogs folded into one message because the client fell behind")
+                .register(meterRegistry);
+        Gauge.builder("expenzor.events.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open /api/expense/events connections")
+                .register(meterRegistry);
+    }
+
+    // --- Subscribing ---
+
+    public SseEmitter subscribe(String tenantId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis); // The client reconnects with Last-Event-ID
+        Subscriber subscriber = new Subscriber(tenantId, emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+
+        // Replay and registration under the publish lock: nothing is missed or sent twice
+        synchronized (this) {
+            if (lastEventId != null) {
+                long after = parseSequence(lastEventId);
+                long oldest = Math.max(1, lastSequence - history.length + 1);
+                if (after < oldest - 1 || after > lastSequence) {
+                    ExpenseChangeDTO resync = new ExpenseChangeDTO();
+                    resync.setType(RESYNC);
+                    resync.setResyncAll(true);
+                    subscriber.offer(new Entry(lastSequence, tenantId, resync));
+                } else {
+                    for (long sequence = after + 1; sequence <= lastSequence; sequence++) {
+                        Entry entry = history[(int) (sequence % history.length)];
+                        if (entry.visibleTo(tenantId)) {
+                            subscriber.offer(entry);
+                        }
+                    }
+                }
+            }
+            subscribers.compute(tenantId, (key, tenantSubscribers) -> {
+                Set<Subscriber> updated = tenantSubscribers != null ? tenantSubscribers : ConcurrentHashMap.newKeySet();
+                updated.add(subscriber);
+                return updated;
+            });
+            subscriberCount.incrementAndGet();
+        }
+        subscriber.heartbeat(); // Sends the response headers now, so EventSource reports open
+        return emitter;
+    }
+
+    // "<boot id>-<sequence>"; anything else (e.g. from before a restart) resumes nowhere
+    private long parseSequence(String eventId) {
+        String prefix = bootId + "-";
+        if (eventId.startsWith(prefix)) {
+            try {
+                return Long.parseLong(eventId.substring(prefix.length()));
+            } catch (NumberFormatException e) {
+                // Fall through
+            }
+        }
+        return -1;
+    }
+
+    private String eventId(long sequence) {
+        return bootId + "-" + sequence;
+    }
+
+    // --- Publishing ---
+
+    @TransactionalEventListener
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        ExpenseChangeDTO change = new ExpenseChangeDTO();
+        change.setType(event.getType().name());
+        change.setExpenseId(event.getExpenseId());
+        Map<List<String>, ExpenseDeltaDTO> deltas = new LinkedHashMap<>();
+        if (event.getBefore() != null) {
+            addDelta(deltas, event.getBefore(), -1);
+        }
+        ExpenseSnapshot after = event.getAfter();
+        if (after != null) {
+            addDelta(deltas, after, 1);
+            change.setExpenseDate(after.getExpenseDate());
+            change.setCategory(after.getCategory());
+            change.setAmount(after.getAmount());
+        }
+        setDeltas(change, deltas.values());
+        publish(event.getTenantId(), change);
+    }
+
+    // Bulk imports and rollup rebuilds carry no per-row detail: ask for a re-fetch
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExpensesBulkChanged(ExpensesBulkChangedEvent event) {
+        ExpenseChangeDTO change = new ExpenseChangeDTO();
+        change.setType(RESYNC);
+        change.setResyncAll(event.isAllMonths());
+        event.getMonths().stream().sorted().map(YearMonth::toString).forEach(change.getResyncMonths()::add);
+        publish(event.getTenantId(), change); // A null tenant (rebuild) goes to everyone
+    }
+
+    // A budget crossed its warning threshold or limit (or dropped back below)
+    @TransactionalEventListener
+    public void onBudgetStatusChanged(BudgetStatusChangedEvent event) {
+        ExpenseChangeDTO change = new ExpenseChangeDTO();
+        change.setType(BUDGET);
+        change.getBudgets().add(event.getBudget());
+        publish(event.getTenantId(), change);
+    }
+
+    private synchronized void publish(String tenantId, ExpenseChangeDTO change) {
+        Entry entry = new Entry(++lastSequence, tenantId, change);
+        history[(int) (entry.sequence % history.length)] = entry;
+        if (tenantId == null) {
+            subscribers.values().forEach(tenantSubscribers -> tenantSubscribers.forEach(s -> s.offer(entry)));
+        } else {
+            subscribers.getOrDefault(tenantId, Set.of()).forEach(s -> s.offer(entry));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${expenzor.events.heartbeat:15s}")
+    public void heartbeat() {
+        subscribers.values().forEach(tenantSubscribers -> tenantSubscribers.forEach(Subscriber::heartbeat));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+        subscribers.values().forEach(tenantSubscribers -> tenantSubscribers.forEach(subscriber -> {
+            try {
+                subscriber.emitter.complete();
+            } catch (IllegalStateException e) {
+                // The container already closed this connection
+            }
+        }));
+    }
+
+    // --- Deltas ---
+
+    private static void addDelta(Map<List<String>, ExpenseDeltaDTO> deltas, ExpenseSnapshot snapshot, int sign) {
+        BigDecimal amount = sign < 0 ? snapshot.getAmount().negate() : snapshot.getAmount();
+        addDelta(deltas, snapshot.getMonth().toString(), snapshot.getCategory(), amount, sign);
+    }
+
+    private static void addDelta(Map<List<String>, ExpenseDeltaDTO> deltas, String month, String category,
+            BigDecimal amount, long count) {
+        ExpenseDeltaDTO delta = deltas.computeIfAbsent(List.of(month, category),
+                key -> new ExpenseDeltaDTO(month, category, BigDecimal.ZERO, 0));
+        delta.setAmountDelta(delta.getAmountDelta().add(amount));
+        delta.setCountDelta(delta.getCountDelta() + count);
+    }
+
+    // Keeps the category deltas that change something and sums them per month
+    private static void setDeltas(ExpenseChangeDTO change, Collection<ExpenseDeltaDTO> categoryDeltas) {
+        Map<String, ExpenseDeltaDTO> months = new LinkedHashMap<>();
+        for (ExpenseDeltaDTO delta : categoryDeltas) {
+            if (delta.getAmountDelta().signum() == 0 && delta.getCountDelta() == 0) {
+                continue; // e.g. an update that only changed the description
+            }
+            change.getCategoryTotals().add(delta);
+            ExpenseDeltaDTO month = months.computeIfAbsent(delta.getMonth(),
+                    key -> new ExpenseDeltaDTO(key, null, BigDecimal.ZERO, 0));
+            month.setAmountDelta(month.getAmountDelta().add(delta.getAmountDelta()));
+            month.setCountDelta(month.getCountDelta() + delta.getCountDelta());
+        }
+        months.values().stream()
+                .filter(month -> month.getAmountDelta().signum() != 0 || month.getCountDelta() != 0)
+                .forEach(change.getMonthTotals()::add);
+    }
+
+    // One message with the same net effect as all of the given ones
+    private static ExpenseChangeDTO coalesce(Collection<ExpenseChangeDTO> changes) {
+        ExpenseChangeDTO merged = new ExpenseChangeDTO();
+        merged.setType(COALESCED);
+        Map<List<String>, ExpenseDeltaDTO> deltas = new LinkedHashMap<>();
+        Set<String> resyncMonths = new LinkedHashSet<>();
+        Map<List<String>, BudgetStatusDTO> budgets = new LinkedHashMap<>(); // Latest status wins
+        for (ExpenseChangeDTO change : changes) {
+            change.getBudgets().forEach(budget -> budgets.put(List.of(budget.getMonth(), budget.getCategory()), budget));
+            for (ExpenseDeltaDTO delta : change.getCategoryTotals()) {
+                addDelta(deltas, delta.getMonth(), delta.getCategory(), delta.getAmountDelta(), delta.getCountDelta());
+            }
+            resyncMonths.addAll(change.getResyncMonths());
+            merged.setResyncAll(merged.isResyncAll() || change.isResyncAll());
+        }
+        setDeltas(merged, deltas.values());
+        merged.getResyncMonths().addAll(resyncMonths);
+        merged.getBudgets().addAll(budgets.values());
+        return merged;
+    }
+
+    // --- Subscribers ---
+
+    private static final class Entry {
+        final long sequence;
+        final String tenantId; // null: every tenant
+        final ExpenseChangeDTO change;
+
+        Entry(long sequence, String tenantId, ExpenseChangeDTO change) {
+            this.sequence = sequence;
+            this.tenantId = tenantId;
+            this.change = change;
+        }
+
+        boolean visibleTo(String subscriberTenant) {
+            return tenantId == null || tenantId.equals(subscriberTenant);
+        }
+    }
+
+    private final class Subscriber {
+
+        final String tenantId;
+        final SseEmitter emitter;
+        private final ArrayDeque<Entry> pending = new ArrayDeque<>();
+        private boolean heartbeatDue;
+        private boolean sending; // A sender thread is draining this subscriber
+        private boolean closed;
+
+        Subscriber(String tenantId, SseEmitter emitter) {
+            this.tenantId = tenantId;
+            this.emitter = emitter;
+        }
+
+        synchronized void offer(Entry entry) {
+            if (closed) {
+                return;
+            }
+            if (pending.size() >= bufferSize) {
+                // Fell behind: fold the backlog into one message under the newest id
+                List<ExpenseChangeDTO> backlog = new ArrayList<>(pending.size() + 1);
+                pending.forEach(waiting -> backlog.add(waiting.change));
+                backlog.add(entry.change);
+                pending.clear();
+                entry = new Entry(entry.sequence, tenantId, coalesce(backlog));
+                coalesced.increment();
+            }
+            pending.add(entry);
+            schedule();
+        }
+
+        synchronized void heartbeat() {
+            if (!closed && !sending) { // Anything being sent already proves the connection
+                heartbeatDue = true;
+                schedule();
+            }
+        }
+
+        private void schedule() {
+            if (!sending) {
+                sending = true;
+                try {
+                    senders.execute(this::drain);
+                } catch (RejectedExecutionException e) { // Shutting down
+                    sending = false;
+                }
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                List<Entry> batch;
+                boolean sendHeartbeat;
+                synchronized (this) {
+                    if (closed || (pending.isEmpty() && !heartbeatDue)) {
+                        sending = false;
+                        return;
+                    }
+                    batch = new ArrayList<>(pending);
+                    pending.clear();
+                    sendHeartbeat = heartbeatDue;
+                    heartbeatDue = false;
+                }
+                try {
+                    if (sendHeartbeat) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    }
+                    for (Entry entry : batch) {
+                        emitter.send(SseEmitter.event()
+                                .id(eventId(entry.sequence))
+                                .name(entry.change.getType())
+                                .data(entry.change, MediaType.APPLICATION_JSON));
+                    }
+                } catch (IOException | IllegalStateException e) { // Client gone or emitter completed
+                    log.debug("Dropping event subscriber of tenant {}: {}", tenantId, e.getMessage());
+                    emitter.completeWithError(e);
+                    close();
+                    return;
+                }
+            }
+        }
+
+        void close() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                sending = false;
+                pending.clear();
+            }
+            subscribers.computeIfPresent(tenantId, (key, tenantSubscribers) -> {
+                tenantSubscribers.remove(this);
+                return tenantSubscribers.isEmpty() ? null : tenantSubscribers;
+            });
+            subscriberCount.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.project.Expenzor.tenant;
+
+// The tenant (user) the current thread is working for. Set per request by TenantFilter
+// and carried over to async work (streamed responses) by TenantTaskDecorator.
+// Services read it once and pass it to every repository call explicitly, so no query
+// can run unscoped. Threads with nothing set (startup, tests, benchmarks) act for
+// DEFAULT_TENANT, which also owns every row that existed before tenants did.
+public final class TenantContext {
+
+    public static final String DEFAULT_TENANT = "default";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    public static String current() {
+        String tenantId = CURRENT.get();
+        return tenantId != null ? tenantId : DEFAULT_TENANT;
+    }
+
+    public static void set(String tenantId) {
+        CURRENT.set(tenantId);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+}
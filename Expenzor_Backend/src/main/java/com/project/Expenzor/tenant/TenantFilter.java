@@ -0,0 +1,53 @@
+package com.project.Expenzor.tenant;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+// Takes the tenant from the X-Tenant-ID header. The backend does no authentication
+// of its own: the header is trusted only from the proxy that authenticated the user
+// and set it (expenzor.tenant.trusted-proxies, matched against the connection's remote
+// address), and rejected with a 403 from anywhere else, so a client can't pick another
+// user's tenant. Requests without one act for TenantContext.DEFAULT_TENANT, which keeps
+// single-user deployments (and the current frontend) working unchanged.
+@Component
+public class TenantFilter extends OncePerRequestFilter {
+
+    public static final String TENANT_HEADER = "X-Tenant-ID";
+
+    private static final Pattern VALID_TENANT = Pattern.compile("[A-Za-z0-9][A-Za-z0-9_.-]{0,63}"); // Fits tenant_id VARCHAR(64)
+
+    private final Set<String> trustedProxies;
+
+    public TenantFilter(@Value("${expenzor.tenant.trusted-proxies:127.0.0.1,::1,0:0:0:0:0:0:0:1}") Set<String> trustedProxies) {
+        this.trustedProxies = trustedProxies;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String tenantId = request.getHeader(TENANT_HEADER);
+        if (tenantId != null && !trustedProxies.contains(request.getRemoteAddr())) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN, TENANT_HEADER + " is only accepted from a trusted proxy");
+            return;
+        }
+        if (tenantId != null && !VALID_TENANT.matcher(tenantId).matches()) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid " + TENANT_HEADER);
+            return;
+        }
+        TenantContext.set(tenantId != null ? tenantId : TenantContext.DEFAULT_TENANT);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            TenantContext.clear();
+        }
+    }
+}
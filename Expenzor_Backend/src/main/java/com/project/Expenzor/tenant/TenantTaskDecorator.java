@@ -0,0 +1,24 @@
+package com.project.Expenzor.tenant;
+
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+
+// Spring Boot applies this to the application task executor, which also runs
+// StreamingResponseBody work, so /all, /stream and /export stay scoped to the
+// tenant of the request that started them.
+@Component
+public class TenantTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        String tenantId = TenantContext.current();
+        return () -> {
+            TenantContext.set(tenantId);
+            try {
+                runnable.run();
+            } finally {
+                TenantContext.clear();
+            }
+        };
+    }
+}
@@ -0,0 +1,13 @@
+-- Write-behind ingestion (WriteBehindIngestor): acknowledged records the database
+-- refused for good (a constraint or column limit the expense breaks). They are moved
+-- here, in the same transaction that advances the checkpoint past them, so one bad
+-- record can't stall the log; payload is the expense as it was acknowledged.
+CREATE TABLE IF NOT EXISTS ingest_dead_letters (
+    log_id    VARCHAR(64)   NOT NULL,
+    sequence  BIGINT        NOT NULL,
+    tenant_id VARCHAR(64)   NOT NULL,
+    payload   TEXT          NOT NULL,
+    error     VARCHAR(1000) NOT NULL,
+    failed_at TIMESTAMP(6)  NOT NULL,
+    PRIMARY KEY (log_id, sequence)
+);
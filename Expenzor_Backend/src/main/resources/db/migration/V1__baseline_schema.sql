@@ -0,0 +1,24 @@
+-- Baseline: the schema Hibernate's ddl-auto=update used to create.
+-- IF NOT EXISTS so databases that predate Flyway are adopted as-is.
+
+CREATE TABLE IF NOT EXISTS expenses (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    description  VARCHAR(255),
+    amount       NUMERIC(10, 2) NOT NULL,
+    category     VARCHAR(50)    NOT NULL,
+    expense_date DATE           NOT NULL,
+    created_at   TIMESTAMP(6),
+    updated_at   TIMESTAMP(6)
+);
+
+-- Keyset paging for /page and /stream: ORDER BY expense_date DESC, id DESC
+CREATE INDEX IF NOT EXISTS idx_expenses_date_id ON expenses (expense_date, id);
+
+CREATE TABLE IF NOT EXISTS expense_monthly_rollups (
+    period_year   INTEGER        NOT NULL,
+    period_month  INTEGER        NOT NULL,
+    category      VARCHAR(50)    NOT NULL,
+    total_amount  NUMERIC(14, 2) NOT NULL,
+    expense_count BIGINT         NOT NULL,
+    PRIMARY KEY (period_year, period_month, category)
+);
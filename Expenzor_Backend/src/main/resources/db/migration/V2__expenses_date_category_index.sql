@@ -0,0 +1,4 @@
+-- Range aggregations group by month (and optionally category) over
+-- expense_date BETWEEN :start AND :end; this index covers both the predicate
+-- and the category grouping.
+CREATE INDEX IF NOT EXISTS idx_expenses_date_category ON expenses (expense_date, category);
@@ -0,0 +1,3 @@
+-- Expense ids now come from a sequence with pooled allocation (INCREMENT BY must
+-- match allocationSize on Expense.id) so inserts can be batched.
+CREATE SEQUENCE IF NOT EXISTS expenses_seq START WITH 1 INCREMENT BY 50;
@@ -0,0 +1,4 @@
+-- Search filtered by one or more categories plus a date range, newest first:
+-- category leads so each category is a contiguous range, and (expense_date, id)
+-- follow in keyset order, so a single-category page is read straight off the index.
+CREATE INDEX IF NOT EXISTS idx_expenses_category_date ON expenses (category, expense_date, id);
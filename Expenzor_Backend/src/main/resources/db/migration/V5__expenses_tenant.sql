@@ -0,0 +1,34 @@
+-- Expenses belong to a tenant (user). Rows written before tenants existed go to
+-- the 'default' tenant, which is also what requests without X-Tenant-ID act for.
+ALTER TABLE expenses ADD COLUMN IF NOT EXISTS tenant_id VARCHAR(64) DEFAULT 'default' NOT NULL;
+ALTER TABLE expenses ALTER COLUMN tenant_id DROP DEFAULT;
+
+-- Every query filters on tenant_id first, so every index leads with it: a tenant's
+-- rows are one contiguous index range and the cost of a query depends on that
+-- tenant's data only, however many other tenants share the table.
+DROP INDEX IF EXISTS idx_expenses_date_id;
+DROP INDEX IF EXISTS idx_expenses_date_category;
+DROP INDEX IF EXISTS idx_expenses_category_date;
+-- Keyset paging (expense_date DESC, id DESC), month/range aggregates, by-date lookups
+CREATE INDEX IF NOT EXISTS idx_expenses_tenant_date_id ON expenses (tenant_id, expense_date, id);
+-- Search by category (+ date range) in keyset order
+CREATE INDEX IF NOT EXISTS idx_expenses_tenant_category_date ON expenses (tenant_id, category, expense_date, id);
+-- Recent transactions
+CREATE INDEX IF NOT EXISTS idx_expenses_tenant_created ON expenses (tenant_id, created_at);
+
+-- Rollups are derived data: recreate them keyed by tenant and refill from expenses
+DROP TABLE IF EXISTS expense_monthly_rollups;
+CREATE TABLE expense_monthly_rollups (
+    tenant_id     VARCHAR(64)    NOT NULL,
+    period_year   INTEGER        NOT NULL,
+    period_month  INTEGER        NOT NULL,
+    category      VARCHAR(50)    NOT NULL,
+    total_amount  NUMERIC(14, 2) NOT NULL,
+    expense_count BIGINT         NOT NULL,
+    PRIMARY KEY (tenant_id, period_year, period_month, category)
+);
+INSERT INTO expense_monthly_rollups (tenant_id, period_year, period_month, category, total_amount, expense_count)
+SELECT tenant_id, CAST(EXTRACT(YEAR FROM expense_date) AS INTEGER), CAST(EXTRACT(MONTH FROM expense_date) AS INTEGER),
+       category, SUM(amount), COUNT(*)
+FROM expenses
+GROUP BY tenant_id, CAST(EXTRACT(YEAR FROM expense_date) AS INTEGER), CAST(EXTRACT(MONTH FROM expense_date) AS INTEGER), category;
@@ -0,0 +1,7 @@
+-- Write-behind ingestion (WriteBehindIngestor): the last ingest-log sequence written
+-- to expenses, per local log. Advanced in the same transaction as each batch, so a
+-- restart replays exactly the records after it.
+CREATE TABLE IF NOT EXISTS ingest_checkpoints (
+    log_id        VARCHAR(64) NOT NULL PRIMARY KEY,
+    last_sequence BIGINT      NOT NULL
+);
@@ -0,0 +1,4 @@
+-- Calendar heatmap (ExpenseRepo.sumAmountByDayBetween) groups a tenant's date range by
+-- day and sums amount. With amount in the index, every column the query reads is in
+-- the index, so it is an index-only scan instead of a heap fetch per expense.
+CREATE INDEX IF NOT EXISTS idx_expenses_tenant_date_amount ON expenses (tenant_id, expense_date, amount);
@@ -0,0 +1,35 @@
+-- Recurring expenses (rent, subscriptions): ExpenseRecurringService turns each due
+-- occurrence into a row in expenses. next_due_date is the date of the next occurrence
+-- still to be written (NULL once end_date has passed) and advances in the same
+-- transaction as the rows it produced, so a restart never writes an occurrence twice.
+CREATE SEQUENCE IF NOT EXISTS recurring_expenses_seq START WITH 1 INCREMENT BY 50;
+CREATE TABLE IF NOT EXISTS recurring_expenses (
+    id               BIGINT         NOT NULL PRIMARY KEY,
+    tenant_id        VARCHAR(64)    NOT NULL,
+    description      VARCHAR(255),
+    amount           NUMERIC(10, 2) NOT NULL,
+    category         VARCHAR(50)    NOT NULL,
+    frequency        VARCHAR(16)    NOT NULL,
+    interval_count   INTEGER        NOT NULL,
+    start_date       DATE           NOT NULL,
+    end_date         DATE,
+    next_due_date    DATE,
+    occurrence_count BIGINT         NOT NULL,
+    created_at       TIMESTAMP(6),
+    updated_at       TIMESTAMP(6)
+);
+-- The scheduler's scan for due rules, across tenants
+CREATE INDEX IF NOT EXISTS idx_recurring_expenses_next_due ON recurring_expenses (next_due_date, id);
+-- A tenant's rules
+CREATE INDEX IF NOT EXISTS idx_recurring_expenses_tenant ON recurring_expenses (tenant_id, id);
+
+-- Monthly spending limit per (tenant, category), checked against expense_monthly_rollups
+CREATE TABLE IF NOT EXISTS expense_budgets (
+    tenant_id     VARCHAR(64)    NOT NULL,
+    category      VARCHAR(50)    NOT NULL,
+    monthly_limit NUMERIC(14, 2) NOT NULL,
+    warn_percent  INTEGER        NOT NULL,
+    created_at    TIMESTAMP(6),
+    updated_at    TIMESTAMP(6),
+    PRIMARY KEY (tenant_id, category)
+);
@@ -0,0 +1,6 @@
+-- Per-tenant data version (ExpenseDataVersion): bumped by every transaction that writes
+-- the tenant's expenses. ETags are built from it, so they are shared by every instance.
+CREATE TABLE IF NOT EXISTS expense_data_versions (
+    tenant_id VARCHAR(64) NOT NULL PRIMARY KEY,
+    version   BIGINT      NOT NULL
+);
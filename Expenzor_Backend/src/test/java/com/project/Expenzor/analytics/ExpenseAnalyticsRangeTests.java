@@ -0,0 +1,82 @@
+package com.project.Expenzor.analytics;
+
+import com.project.Expenzor.dto.AnalyticsBucketDTO;
+import com.project.Expenzor.dto.ExpenseRequestDTO;
+import com.project.Expenzor.service.ExpenseService;
+import com.project.Expenzor.tenant.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// by-month builds one slot per day of the range, so the range is capped; open ends
+// are closed at the data without ever inverting the requested range
+@SpringBootTest
+class ExpenseAnalyticsRangeTests {
+
+    private static final String TENANT = "analytics-range-tests";
+
+    @Autowired
+    private ExpenseService expenseService;
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    // The store is off in tests (expenzor.analytics.enabled); a private one loads the tenant on first use
+    private ExpenseAnalyticsService analytics;
+
+    @BeforeEach
+    void seed() {
+        TenantContext.set(TENANT);
+        add(LocalDate.of(2024, 11, 20), "10.00");
+        add(LocalDate.of(2025, 1, 5), "5.00");
+        analytics = new ExpenseAnalyticsService(jdbc, 500);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbc.update("DELETE FROM expenses WHERE tenant_id = ?", TENANT);
+        jdbc.update("DELETE FROM expense_monthly_rollups WHERE tenant_id = ?", TENANT);
+        jdbc.update("DELETE FROM expense_data_versions WHERE tenant_id = ?", TENANT);
+        TenantContext.clear();
+    }
+
+    @Test
+    void openEndsCloseAtTheData() {
+        assertThat(analytics.totalsByMonth(null, null)).extracting(AnalyticsBucketDTO::getKey)
+                .containsExactly("2024-11", "2024-12", "2025-01");
+        assertThat(analytics.totalsByMonth(LocalDate.of(2024, 12, 1), null)).extracting(AnalyticsBucketDTO::getKey)
+                .containsExactly("2024-12", "2025-01");
+    }
+
+    @Test
+    void openEndPastTheRequestedOneIsEmpty() {
+        assertThat(analytics.totalsByMonth(LocalDate.of(2030, 1, 1), null)).isEmpty();
+        assertThat(analytics.totalsByMonth(null, LocalDate.of(2020, 1, 1))).isEmpty();
+    }
+
+    @Test
+    void rangeIsCappedAtTenYears() {
+        assertThat(analytics.totalsByMonth(LocalDate.of(2016, 1, 1), LocalDate.of(2025, 12, 31))).hasSize(120);
+        assertThatThrownBy(() -> analytics.totalsByMonth(LocalDate.of(1, 1, 1), LocalDate.of(9999, 12, 31)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> analytics.totalsByMonth(LocalDate.of(2025, 2, 1), LocalDate.of(2025, 1, 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void add(LocalDate date, String amount) {
+        ExpenseRequestDTO request = new ExpenseRequestDTO();
+        request.setDescription("Analytics " + date);
+        request.setAmount(new BigDecimal(amount));
+        request.setCategory("Food");
+        request.setExpenseDate(date);
+        expenseService.addExpense(request);
+    }
+}
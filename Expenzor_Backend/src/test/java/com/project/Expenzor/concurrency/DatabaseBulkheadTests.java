@@ -0,0 +1,108 @@
+package com.project.Expenzor.concurrency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// A permit reserved for a streaming body must come back exactly once: after the body,
+// or when the request ends before the body ever ran
+class DatabaseBulkheadTests {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DatabaseBulkhead bulkhead = new DatabaseBulkhead(meterRegistry, true, 2, Duration.ofMillis(10));
+    private final List<Runnable> queued = new ArrayList<>();
+
+    private MockHttpServletRequest request;
+    private WebAsyncManager asyncManager;
+
+    @BeforeEach
+    void startRequest() {
+        request = new MockHttpServletRequest("GET", "/api/expense/all");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+        asyncManager = WebAsyncUtils.getAsyncManager(request);
+        asyncManager.setAsyncWebRequest(new StandardServletAsyncWebRequest(request, response));
+        // Holds the body back, as a saturated async executor would
+        asyncManager.setTaskExecutor((AsyncTaskExecutor) queued::add);
+    }
+
+    @AfterEach
+    void endRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void requestAbortedBeforeTheBodyRunsReleasesThePermit() throws Exception {
+        AtomicBoolean ran = new AtomicBoolean();
+        DatabaseBulkhead.Permit permit = bulkhead.reserve();
+        asyncManager.startCallableProcessing(() -> {
+            permit.runHolding(() -> ran.set(true));
+            return null;
+        });
+        assertThat(availablePermits()).isEqualTo(1);
+
+        request.getAsyncContext().complete(); // Client went away
+        assertThat(availablePermits()).isEqualTo(2);
+
+        // The body still gets scheduled eventually: it must neither run nor release again
+        queued.forEach(Runnable::run);
+        assertThat(ran).isFalse();
+        assertThat(availablePermits()).isEqualTo(2);
+    }
+
+    @Test
+    void bodyThatRanReleasesOnce() throws Exception {
+        AtomicBoolean ran = new AtomicBoolean();
+        DatabaseBulkhead.Permit permit = bulkhead.reserve();
+        asyncManager.startCallableProcessing(() -> {
+            permit.runHolding(() -> ran.set(true));
+            return null;
+        });
+        queued.forEach(Runnable::run);
+        assertThat(ran).isTrue();
+        assertThat(availablePermits()).isEqualTo(2);
+
+        request.getAsyncContext().complete();
+        permit.close();
+        assertThat(availablePermits()).isEqualTo(2);
+    }
+
+    @Test
+    void closeIsIdempotent() throws Exception {
+        try (DatabaseBulkhead.Permit permit = bulkhead.reserve()) {
+            assertThat(availablePermits()).isEqualTo(1);
+            permit.close();
+        }
+        assertThat(availablePermits()).isEqualTo(2);
+    }
+
+    @Test
+    void rejectsWhenAllPermitsAreReserved() throws Exception {
+        bulkhead.reserve();
+        bulkhead.reserve();
+        assertThatThrownBy(bulkhead::reserve).isInstanceOf(BulkheadFullException.class);
+    }
+
+    private int availablePermits() {
+        return (int) meterRegistry.get("expenzor.bulkhead.available").gauge().value();
+    }
+}
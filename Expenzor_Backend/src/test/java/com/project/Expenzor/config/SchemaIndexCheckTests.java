@@ -0,0 +1,72 @@
+package com.project.Expenzor.config;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatNoException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Runs the check against a freshly migrated database of its own: the migrated schema
+// passes, the partitioned table's (tenant_id, id) primary key passes, and a dropped
+// index is reported (warn) or stops startup (fail)
+class SchemaIndexCheckTests {
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void migrate() {
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:index-check-" + UUID.randomUUID()
+                + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE", "sa", "", true);
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        jdbc = new JdbcTemplate(dataSource);
+    }
+
+    @AfterEach
+    void close() {
+        dataSource.destroy();
+    }
+
+    @Test
+    void migratedSchemaHasEveryIndex() throws Exception {
+        assertThat(new SchemaIndexCheck(dataSource, "fail").missingIndexes()).isEmpty();
+        assertThatNoException().isThrownBy(() -> new SchemaIndexCheck(dataSource, "fail").afterSingletonsInstantiated());
+    }
+
+    @Test
+    void tenantLeadingPrimaryKeyServesLookupsById() throws Exception {
+        jdbc.execute("ALTER TABLE expenses DROP PRIMARY KEY");
+        jdbc.execute("ALTER TABLE expenses ADD PRIMARY KEY (tenant_id, id)");
+
+        assertThat(new SchemaIndexCheck(dataSource, "fail").missingIndexes()).isEmpty();
+    }
+
+    @Test
+    void missingIndexesAreReported() throws Exception {
+        jdbc.execute("ALTER TABLE expenses DROP PRIMARY KEY");
+        jdbc.execute("DROP INDEX idx_expenses_tenant_created");
+
+        assertThat(new SchemaIndexCheck(dataSource, "warn").missingIndexes()).containsExactly(
+                "expenses (id or tenant_id, id) for findByIdAndTenantId",
+                "expenses (tenant_id, created_at) for recent transactions");
+        // warn only logs them
+        assertThatNoException().isThrownBy(() -> new SchemaIndexCheck(dataSource, "warn").afterSingletonsInstantiated());
+    }
+
+    @Test
+    void failModeStopsStartup() {
+        jdbc.execute("DROP INDEX idx_expenses_tenant_created");
+
+        assertThatThrownBy(() -> new SchemaIndexCheck(dataSource, "FAIL").afterSingletonsInstantiated())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Missing database indexes: [expenses (tenant_id, created_at) for recent transactions]");
+        assertThatNoException().isThrownBy(() -> new SchemaIndexCheck(dataSource, "off").afterSingletonsInstantiated());
+    }
+}
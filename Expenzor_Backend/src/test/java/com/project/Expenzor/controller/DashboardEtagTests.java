@@ -0,0 +1,146 @@
+package com.project.Expenzor.controller;
+
+import com.project.Expenzor.dto.ExpenseRequestDTO;
+import com.project.Expenzor.service.ExpenseService;
+import com.project.Expenzor.tenant.TenantContext;
+import com.project.Expenzor.tenant.TenantFilter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Dashboard ETags come from the shared per-tenant version, so a write through any
+// instance (here: straight to the table) invalidates them, and rolled back writes don't
+@SpringBootTest
+class DashboardEtagTests {
+
+    private static final String TENANT = "etag-tests";
+
+    @Autowired
+    private WebApplicationContext context;
+    @Autowired
+    private TenantFilter tenantFilter;
+    @Autowired
+    private ExpenseService expenseService;
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).addFilters(tenantFilter).build();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbc.update("DELETE FROM expenses WHERE tenant_id = ?", TENANT);
+        jdbc.update("DELETE FROM expense_monthly_rollups WHERE tenant_id = ?", TENANT);
+        jdbc.update("DELETE FROM expense_data_versions WHERE tenant_id = ?", TENANT);
+        TenantContext.clear();
+    }
+
+    @Test
+    void notModifiedUntilAnyInstanceWrites() throws Exception {
+        String etag = dashboardEtag();
+        assertThat(dashboardStatus(etag)).isEqualTo(304);
+
+        addExpense();
+        assertThat(dashboardStatus(etag)).isEqualTo(200);
+        etag = dashboardEtag();
+        assertThat(dashboardStatus(etag)).isEqualTo(304);
+
+        // Another instance's write: only the shared row moves
+        jdbc.update("UPDATE expense_data_versions SET version = version + 1 WHERE tenant_id = ?", TENANT);
+        assertThat(dashboardStatus(etag)).isEqualTo(200);
+    }
+
+    @Test
+    void bumpsOncePerTransactionAndNotOnRollback() {
+        TenantContext.set(TENANT);
+        long before = expenseService.getDataVersion();
+        transactionTemplate.executeWithoutResult(status -> {
+            addExpense();
+            addExpense();
+            addExpense();
+        });
+        assertThat(expenseService.getDataVersion()).isEqualTo(before + 1);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            addExpense();
+            status.setRollbackOnly();
+        });
+        assertThat(expenseService.getDataVersion()).isEqualTo(before + 1);
+    }
+
+    @Test
+    void tenantsHaveTheirOwnVersion() throws Exception {
+        String etag = dashboardEtag();
+        TenantContext.set("etag-tests-other");
+        try {
+            expenseService.addExpense(request());
+        } finally {
+            jdbc.update("DELETE FROM expenses WHERE tenant_id = ?", "etag-tests-other");
+            jdbc.update("DELETE FROM expense_monthly_rollups WHERE tenant_id = ?", "etag-tests-other");
+            jdbc.update("DELETE FROM expense_data_versions WHERE tenant_id = ?", "etag-tests-other");
+        }
+        assertThat(dashboardStatus(etag)).isEqualTo(304);
+    }
+
+    @Test
+    void calendarYearOutOfRangeIsABadRequest() throws Exception {
+        for (String year : new String[] {"0", "10000", "2147483647"}) {
+            assertThat(mockMvc.perform(get("/api/expense/calendar").header(TenantFilter.TENANT_HEADER, TENANT)
+                    .param("year", year)).andReturn().getResponse().getStatus()).as(year).isEqualTo(400);
+        }
+        assertThat(mockMvc.perform(get("/api/expense/calendar").header(TenantFilter.TENANT_HEADER, TENANT)
+                .param("year", "2025")).andReturn().getResponse().getStatus()).isEqualTo(200);
+    }
+
+    private void addExpense() {
+        TenantContext.set(TENANT);
+        expenseService.addExpense(request());
+    }
+
+    private static ExpenseRequestDTO request() {
+        ExpenseRequestDTO request = new ExpenseRequestDTO();
+        request.setDescription("ETag");
+        request.setAmount(new BigDecimal("3.00"));
+        request.setCategory("Food");
+        request.setExpenseDate(LocalDate.now());
+        return request;
+    }
+
+    private String dashboardEtag() throws Exception {
+        String etag = mockMvc.perform(dashboard(null)).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotBlank();
+        return etag;
+    }
+
+    private int dashboardStatus(String ifNoneMatch) throws Exception {
+        return mockMvc.perform(dashboard(ifNoneMatch)).andReturn().getResponse().getStatus();
+    }
+
+    private static MockHttpServletRequestBuilder dashboard(String ifNoneMatch) {
+        MockHttpServletRequestBuilder request = get("/api/expense/dashboard").header(TenantFilter.TENANT_HEADER, TENANT);
+        return ifNoneMatch != null ? request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch) : request;
+    }
+}
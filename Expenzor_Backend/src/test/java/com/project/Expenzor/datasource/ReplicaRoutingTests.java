@@ -0,0 +1,158 @@
+package com.project.Expenzor.datasource;
+
+import com.project.Expenzor.tenant.TenantContext;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Two H2 databases stand in for the primary and a replica, each saying which one it is,
+// wired the way ReplicaRoutingConfig wires them. Read-only transactions go to the replica;
+// a replica that lags or fails its health check sends them to the primary until it
+// recovers; a tenant whose write transaction committed reads from the primary.
+class ReplicaRoutingTests {
+
+    private static final Duration CHECK_INTERVAL = Duration.ofMillis(50);
+    private static final Duration MAX_LAG = Duration.ofSeconds(1);
+
+    private final String primaryUrl = "jdbc:h2:mem:routing-primary-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+    private final String replicaUrl = "jdbc:h2:mem:routing-replica-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+    private final JdbcTemplate primaryAdmin = new JdbcTemplate(new DriverManagerDataSource(primaryUrl, "sa", ""));
+    private final JdbcTemplate replicaAdmin = new JdbcTemplate(new DriverManagerDataSource(replicaUrl, "sa", ""));
+
+    private HikariDataSource primary;
+    private ReplicaRouter router;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @AfterEach
+    void close() {
+        router.close();
+        primary.close();
+        primaryAdmin.execute("SHUTDOWN");
+        replicaAdmin.execute("SHUTDOWN");
+        TenantContext.clear();
+    }
+
+    @Test
+    void readOnlyTransactionsReadFromTheReplica() {
+        start();
+
+        awaitReadsFrom("replica", "routing-reader");
+        // Read-write transactions, and work outside a transaction, stay on the primary
+        String readWriteSource = readWrite.execute(status -> source());
+        assertThat(readWriteSource).isEqualTo("primary");
+        assertThat(source()).isEqualTo("primary");
+    }
+
+    @Test
+    void laggingOrFailingReplicaFallsBackToThePrimary() {
+        start();
+        awaitReadsFrom("replica", "routing-reader");
+
+        replicaAdmin.update("UPDATE replication SET lag_seconds = 5");
+        awaitReadsFrom("primary", "routing-reader");
+        assertThat(router.health().getDetails()).containsEntry("readsOn", "primary");
+        replicaAdmin.update("UPDATE replication SET lag_seconds = 0.2");
+        awaitReadsFrom("replica", "routing-reader");
+
+        // The lag query fails, as it would against a replica that has gone away
+        replicaAdmin.execute("DROP TABLE replication");
+        awaitReadsFrom("primary", "routing-reader");
+        replicaAdmin.execute("CREATE TABLE replication (lag_seconds DOUBLE)");
+        replicaAdmin.update("INSERT INTO replication VALUES (0)");
+        awaitReadsFrom("replica", "routing-reader");
+    }
+
+    @Test
+    void tenantStaysOnThePrimaryAfterAnyWrite() {
+        start();
+        awaitReadsFrom("replica", "routing-writer");
+
+        TenantContext.set("routing-writer");
+        readWrite.executeWithoutResult(status -> {
+            jdbc.update("INSERT INTO writes VALUES ('rolled back')");
+            status.setRollbackOnly();
+        });
+        assertThat(readFrom("routing-writer")).isEqualTo("replica");
+
+        // Not an expense: a budget or recurring rule write counts the same
+        TenantContext.set("routing-writer");
+        readWrite.executeWithoutResult(status -> jdbc.update("INSERT INTO writes VALUES ('budget')"));
+        assertThat(readFrom("routing-writer")).isEqualTo("primary");
+        assertThat(readFrom("routing-other")).isEqualTo("replica");
+    }
+
+    private void start() {
+        primaryAdmin.execute("CREATE TABLE source (name VARCHAR(16))");
+        primaryAdmin.update("INSERT INTO source VALUES ('primary')");
+        primaryAdmin.execute("CREATE TABLE writes (note VARCHAR(16))");
+        replicaAdmin.execute("CREATE TABLE source (name VARCHAR(16))");
+        replicaAdmin.update("INSERT INTO source VALUES ('replica')");
+        replicaAdmin.execute("CREATE TABLE replication (lag_seconds DOUBLE)");
+        replicaAdmin.update("INSERT INTO replication VALUES (0)");
+
+        primary = new HikariDataSource();
+        primary.setPoolName("primary");
+        primary.setJdbcUrl(primaryUrl);
+        primary.setUsername("sa");
+        HikariConfig replica = new HikariConfig();
+        replica.setPoolName("replica-0");
+        replica.setJdbcUrl(replicaUrl);
+        replica.setUsername("sa");
+        replica.setMaximumPoolSize(2);
+        replica.setConnectionTimeout(1000);
+        replica.setInitializationFailTimeout(-1);
+        replica.setReadOnly(true);
+        router = new ReplicaRouter(primary, List.of(replica), MAX_LAG, Duration.ofHours(1), CHECK_INTERVAL,
+                "SELECT lag_seconds FROM replication", new SimpleMeterRegistry());
+        router.start();
+
+        DataSource dataSource = new ReplicaRoutingConfig().dataSource(router);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbc = new JdbcTemplate(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    private String source() {
+        return jdbc.queryForObject("SELECT name FROM source", String.class);
+    }
+
+    private String readFrom(String tenantId) {
+        TenantContext.set(tenantId);
+        try {
+            return readOnly.execute(status -> source());
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    // Health checks run every CHECK_INTERVAL; a few of them are enough to see a change
+    private void awaitReadsFrom(String expected, String tenantId) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!expected.equals(readFrom(tenantId)) && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(CHECK_INTERVAL.toMillis() / 2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        assertThat(readFrom(tenantId)).isEqualTo(expected);
+    }
+}
@@ -0,0 +1,106 @@
+package com.project.Expenzor.ingest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.Expenzor.dto.ExpenseRequestDTO;
+import com.project.Expenzor.service.ExpenseBulkService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Records acknowledged before validation caught them (or that break a constraint some
+// other way) must not stall the log: the rest are written, in order, and the refused
+// ones end up in ingest_dead_letters with the checkpoint past them
+@SpringBootTest
+class WriteBehindIngestorTests {
+
+    private static final String TENANT = "ingest-tests";
+
+    @Autowired
+    private ExpenseBulkService bulkService;
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @TempDir
+    Path logDir;
+
+    private String logId;
+
+    @AfterEach
+    void cleanUp() {
+        jdbc.update("DELETE FROM expenses WHERE tenant_id = ?", TENANT);
+        jdbc.update("DELETE FROM expense_monthly_rollups WHERE tenant_id = ?", TENANT);
+        jdbc.update("DELETE FROM expense_data_versions WHERE tenant_id = ?", TENANT);
+        jdbc.update("DELETE FROM ingest_dead_letters WHERE log_id = ?", logId);
+        jdbc.update("DELETE FROM ingest_checkpoints WHERE log_id = ?", logId);
+    }
+
+    @Test
+    void replaySetsRefusedRecordsAside() throws Exception {
+        try (IngestLog log = new IngestLog(logDir, objectMapper, DataSize.ofMegabytes(1).toBytes())) {
+            logId = log.id();
+            log.open(0);
+            long last = 0;
+            for (int i = 1; i <= 7; i++) {
+                String category = i == 3 ? "C".repeat(60) : "Food";                          // VARCHAR(50)
+                BigDecimal amount = i == 6 ? new BigDecimal("123456789012.00") : BigDecimal.ONE; // NUMERIC(10, 2)
+                last = log.append(TENANT, expense("row " + i, category, amount), record -> { });
+            }
+            log.sync(last);
+        }
+
+        WriteBehindIngestor ingestor = new WriteBehindIngestor(bulkService, jdbc, transactionManager, objectMapper,
+                new SimpleMeterRegistry(), logDir, DataSize.ofMegabytes(1), 500, Duration.ofMillis(10), 100,
+                Duration.ofSeconds(1), Duration.ofSeconds(10));
+        ingestor.start();
+        try {
+            long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+            while (checkpoint() < 7 && System.nanoTime() < deadline) {
+                Thread.sleep(20);
+            }
+        } finally {
+            ingestor.stop();
+        }
+
+        assertThat(checkpoint()).isEqualTo(7);
+        assertThat(jdbc.queryForList("SELECT description FROM expenses WHERE tenant_id = ? ORDER BY id", String.class, TENANT))
+                .containsExactly("row 1", "row 2", "row 4", "row 5", "row 7");
+        assertThat(jdbc.queryForList("SELECT sequence FROM ingest_dead_letters WHERE log_id = ? ORDER BY sequence",
+                Long.class, logId)).containsExactly(3L, 6L);
+        String payload = jdbc.queryForObject("SELECT payload FROM ingest_dead_letters WHERE log_id = ? AND sequence = 3",
+                String.class, logId);
+        assertThat(objectMapper.readValue(payload, ExpenseRequestDTO.class).getDescription()).isEqualTo("row 3");
+    }
+
+    private long checkpoint() {
+        List<Long> checkpoint = jdbc.queryForList("SELECT last_sequence FROM ingest_checkpoints WHERE log_id = ?",
+                Long.class, logId);
+        return checkpoint.isEmpty() ? 0 : checkpoint.get(0);
+    }
+
+    private static ExpenseRequestDTO expense(String description, String category, BigDecimal amount) {
+        ExpenseRequestDTO expense = new ExpenseRequestDTO();
+        expense.setDescription(description);
+        expense.setAmount(amount);
+        expense.setCategory(category);
+        expense.setExpenseDate(LocalDate.of(2025, 9, 1));
+        return expense;
+    }
+}
@@ -0,0 +1,183 @@
+package com.project.Expenzor.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.cfg.JsonNodeFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.project.Expenzor.dto.ExpenseField;
+import com.project.Expenzor.dto.ExpenseResponseDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// /all and /stream skip the bean serializer, so the writer must render every value the
+// way the application's ObjectMapper renders ExpenseResponseDTO: checked byte for byte
+// for every ?fields= subset, plain and compact, as an array and as NDJSON
+@SpringBootTest
+class ExpenseRowWriterTests {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Narrows the DTO's rendering to the selected fields; keeps 12.50 as written
+    private ObjectMapper trees;
+
+    @BeforeEach
+    void setUp() {
+        trees = objectMapper.copy().configure(JsonNodeFeature.STRIP_TRAILING_BIGDECIMAL_ZEROES, false);
+    }
+
+    @Test
+    void matchesObjectMapperForEveryFieldSubset() throws IOException {
+        List<ExpenseResponseDTO> expenses = List.of(
+                expense(1L, "Lunch", "12.50", "Food", LocalDate.of(2025, 1, 15),
+                        LocalDateTime.of(2025, 1, 15, 12, 30), LocalDateTime.of(2025, 1, 15, 12, 30, 45, 123_400_000)),
+                expense(2L, null, "0.01", "Travel", LocalDate.of(2025, 12, 31), null, null),
+                expense(Long.MAX_VALUE, "Café \"quoted\"\n\ttab ☃ 😀", "1E+3", "Rent",
+                        LocalDate.of(999, 2, 3), LocalDateTime.of(2025, 6, 1, 0, 0, 0, 1),
+                        LocalDateTime.of(10000, 1, 1, 23, 59, 59, 999_999_999)),
+                expense(4L, "", "99999999.99", "", LocalDate.of(2024, 2, 29),
+                        LocalDateTime.of(2024, 2, 29, 1, 2, 3, 400_000_000), LocalDateTime.of(2024, 3, 1, 0, 0, 5)));
+        // The narrowing itself changes nothing
+        assertThat(expectedArray(ExpenseField.ALL, false, expenses))
+                .isEqualTo(new String(objectMapper.writeValueAsBytes(expenses), StandardCharsets.UTF_8));
+
+        for (int mask = 1; mask < 1 << ExpenseField.ALL.size(); mask++) {
+            StringJoiner names = new StringJoiner(",");
+            for (ExpenseField field : ExpenseField.ALL) {
+                if ((mask & 1 << field.ordinal()) != 0) {
+                    names.add(field.property());
+                }
+            }
+            List<ExpenseField> fields = ExpenseField.parse(names.toString());
+            for (boolean compact : new boolean[] {false, true}) {
+                String context = "fields=" + names + ", compact=" + compact;
+                assertThat(written(fields, compact, false, expenses)).as(context)
+                        .isEqualTo(expectedArray(fields, compact, expenses));
+                assertThat(written(fields, compact, true, expenses)).as(context)
+                        .isEqualTo(expectedLines(fields, compact, expenses));
+            }
+        }
+    }
+
+    @Test
+    void emptyResultIsAnEmptyArray() throws IOException {
+        assertThat(written(ExpenseField.ALL, false, false, List.of())).isEqualTo("[]");
+        assertThat(written(ExpenseField.ALL, true, false, List.of()))
+                .isEqualTo(expectedArray(ExpenseField.ALL, true, List.of()));
+        assertThat(written(ExpenseField.ALL, false, true, List.of())).isEmpty();
+    }
+
+    private String written(List<ExpenseField> fields, boolean compact, boolean lines, List<ExpenseResponseDTO> expenses)
+            throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ExpenseRowWriter writer = lines
+                ? ExpenseRowWriter.lines(objectMapper.getFactory(), out, fields, compact)
+                : ExpenseRowWriter.array(objectMapper.getFactory(), out, fields, compact)) {
+            for (ExpenseResponseDTO expense : expenses) {
+                Object[] row = new Object[fields.size()];
+                for (int i = 0; i < row.length; i++) {
+                    row[i] = value(expense, fields.get(i));
+                }
+                writer.write(row);
+            }
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    // ObjectMapper's rendering of the DTO, narrowed to the fields
+    private ObjectNode rendered(ExpenseResponseDTO expense, List<ExpenseField> fields) {
+        ObjectNode node = trees.valueToTree(expense);
+        node.retain(fields.stream().map(ExpenseField::property).toList());
+        return node;
+    }
+
+    private ArrayNode values(ObjectNode node) {
+        ArrayNode values = objectMapper.createArrayNode();
+        node.elements().forEachRemaining(values::add);
+        return values;
+    }
+
+    private ArrayNode names(List<ExpenseField> fields) {
+        ArrayNode names = objectMapper.createArrayNode();
+        fields.forEach(field -> names.add(field.property()));
+        return names;
+    }
+
+    private String expectedArray(List<ExpenseField> fields, boolean compact, List<ExpenseResponseDTO> expenses)
+            throws IOException {
+        ArrayNode rows = objectMapper.createArrayNode();
+        for (ExpenseResponseDTO expense : expenses) {
+            ObjectNode node = rendered(expense, fields);
+            rows.add(compact ? values(node) : node);
+        }
+        if (!compact) {
+            return json(rows);
+        }
+        ObjectNode wrapper = objectMapper.createObjectNode();
+        wrapper.set("fields", names(fields));
+        wrapper.set("rows", rows);
+        return json(wrapper);
+    }
+
+    private String expectedLines(List<ExpenseField> fields, boolean compact, List<ExpenseResponseDTO> expenses)
+            throws IOException {
+        List<JsonNode> lines = new ArrayList<>();
+        if (compact) {
+            lines.add(names(fields));
+        }
+        for (ExpenseResponseDTO expense : expenses) {
+            ObjectNode node = rendered(expense, fields);
+            lines.add(compact ? values(node) : node);
+        }
+        StringJoiner joined = new StringJoiner("\n");
+        for (JsonNode line : lines) {
+            joined.add(json(line));
+        }
+        return joined.toString();
+    }
+
+    // Bytes, as the message converter writes a response (UTF-8 escapes surrogate pairs)
+    private String json(JsonNode node) throws IOException {
+        return new String(objectMapper.writeValueAsBytes(node), StandardCharsets.UTF_8);
+    }
+
+    private static Object value(ExpenseResponseDTO expense, ExpenseField field) {
+        return switch (field) {
+            case ID -> expense.getId();
+            case DESCRIPTION -> expense.getDescription();
+            case AMOUNT -> expense.getAmount();
+            case CATEGORY -> expense.getCategory();
+            case EXPENSE_DATE -> expense.getExpenseDate();
+            case CREATED_AT -> expense.getCreatedAt();
+            case UPDATED_AT -> expense.getUpdatedAt();
+        };
+    }
+
+    private static ExpenseResponseDTO expense(Long id, String description, String amount, String category,
+            LocalDate expenseDate, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        ExpenseResponseDTO expense = new ExpenseResponseDTO();
+        expense.setId(id);
+        expense.setDescription(description);
+        expense.setAmount(new BigDecimal(amount));
+        expense.setCategory(category);
+        expense.setExpenseDate(expenseDate);
+        expense.setCreatedAt(createdAt);
+        expense.setUpdatedAt(updatedAt);
+        return expense;
+    }
+}
@@ -0,0 +1,112 @@
+package com.project.Expenzor.metrics;
+
+import com.project.Expenzor.dto.ExpenseRequestDTO;
+import com.project.Expenzor.service.ExpenseService;
+import com.project.Expenzor.tenant.TenantContext;
+import com.project.Expenzor.tenant.TenantFilter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Streamed bodies are counted once, in the dispatch that follows the body, with every
+// byte the client received; plain responses are counted in their only dispatch
+@SpringBootTest
+class ResponseSizeMetricsFilterTests {
+
+    private static final String TENANT = "response-size-tests";
+
+    @Autowired
+    private WebApplicationContext context;
+    @Autowired
+    private TenantFilter tenantFilter;
+    @Autowired
+    private ResponseSizeMetricsFilter responseSizeFilter;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private ExpenseService expenseService;
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).addFilters(tenantFilter, responseSizeFilter).build();
+        TenantContext.set(TENANT);
+        for (int i = 1; i <= 3; i++) {
+            ExpenseRequestDTO request = new ExpenseRequestDTO();
+            request.setDescription("Sized " + i);
+            request.setAmount(new BigDecimal("4.00"));
+            request.setCategory("Food");
+            request.setExpenseDate(LocalDate.of(2025, 7, i));
+            expenseService.addExpense(request);
+        }
+        TenantContext.clear();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbc.update("DELETE FROM expenses WHERE tenant_id = ?", TENANT);
+        jdbc.update("DELETE FROM expense_monthly_rollups WHERE tenant_id = ?", TENANT);
+        jdbc.update("DELETE FROM expense_data_versions WHERE tenant_id = ?", TENANT);
+    }
+
+    @Test
+    void streamedBodyIsRecordedAfterItCompletes() throws Exception {
+        DistributionSummary summary = summary("/api/expense/all");
+        long countBefore = summary.count();
+        double totalBefore = summary.totalAmount();
+
+        MvcResult started = mockMvc.perform(get("/api/expense/all").header(TenantFilter.TENANT_HEADER, TENANT))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertThat(summary.count()).isEqualTo(countBefore);
+
+        byte[] body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(body).isNotEmpty();
+        assertThat(summary.count()).isEqualTo(countBefore + 1);
+        assertThat(summary.totalAmount() - totalBefore).isEqualTo(body.length);
+    }
+
+    @Test
+    void plainBodyIsRecordedOnce() throws Exception {
+        DistributionSummary summary = summary("/api/expense/page");
+        long countBefore = summary.count();
+        double totalBefore = summary.totalAmount();
+
+        byte[] body = mockMvc.perform(get("/api/expense/page").header(TenantFilter.TENANT_HEADER, TENANT))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(summary.count()).isEqualTo(countBefore + 1);
+        assertThat(summary.totalAmount() - totalBefore).isEqualTo(body.length);
+    }
+
+    private DistributionSummary summary(String uri) {
+        return DistributionSummary.builder(ResponseSizeMetricsFilter.METRIC)
+                .tag("uri", uri)
+                .tag("method", "GET")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+}
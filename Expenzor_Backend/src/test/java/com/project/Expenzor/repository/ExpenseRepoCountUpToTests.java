@@ -0,0 +1,66 @@
+package com.project.Expenzor.repository;
+
+import com.project.Expenzor.dto.ExpenseFilterDTO;
+import com.project.Expenzor.dto.ExpenseRequestDTO;
+import com.project.Expenzor.service.ExpenseService;
+import com.project.Expenzor.tenant.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// countUpTo counts in the database, stopping at the limit, and respects the filter
+@SpringBootTest
+class ExpenseRepoCountUpToTests {
+
+    private static final String TENANT = "count-up-to-tests";
+
+    @Autowired
+    private ExpenseRepo expenseRepo;
+    @Autowired
+    private ExpenseService expenseService;
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void seed() {
+        TenantContext.set(TENANT);
+        for (int i = 1; i <= 5; i++) {
+            ExpenseRequestDTO request = new ExpenseRequestDTO();
+            request.setDescription("Count " + i);
+            request.setAmount(new BigDecimal(i * 10));
+            request.setCategory(i % 2 == 0 ? "Travel" : "Food");
+            request.setExpenseDate(LocalDate.of(2025, 8, i));
+            expenseService.addExpense(request);
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbc.update("DELETE FROM expenses WHERE tenant_id = ?", TENANT);
+        jdbc.update("DELETE FROM expense_monthly_rollups WHERE tenant_id = ?", TENANT);
+        jdbc.update("DELETE FROM expense_data_versions WHERE tenant_id = ?", TENANT);
+        TenantContext.clear();
+    }
+
+    @Test
+    void stopsAtTheLimit() {
+        assertThat(expenseRepo.countUpTo(ExpenseSpecifications.ofTenant(TENANT), 3)).isEqualTo(3);
+        assertThat(expenseRepo.countUpTo(ExpenseSpecifications.ofTenant(TENANT), 5)).isEqualTo(5);
+        assertThat(expenseRepo.countUpTo(ExpenseSpecifications.ofTenant(TENANT), 100)).isEqualTo(5);
+    }
+
+    @Test
+    void countsOnlyMatchingRows() {
+        ExpenseFilterDTO food = new ExpenseFilterDTO(null, null, "Food");
+        assertThat(expenseRepo.countUpTo(ExpenseSpecifications.matching(TENANT, food), 100)).isEqualTo(3);
+        assertThat(expenseRepo.countUpTo(ExpenseSpecifications.ofTenant("count-up-to-nobody"), 100)).isZero();
+    }
+}
@@ -0,0 +1,89 @@
+package com.project.Expenzor.service;
+
+import com.project.Expenzor.dto.BudgetRequestDTO;
+import com.project.Expenzor.dto.ExpenseRequestDTO;
+import com.project.Expenzor.dto.ExpenseResponseDTO;
+import com.project.Expenzor.event.BudgetStatusChangedEvent;
+import com.project.Expenzor.tenant.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A budget announces each status change once, on the write that crosses the threshold;
+// further spending in the same status stays quiet
+@SpringBootTest
+@RecordApplicationEvents
+class ExpenseBudgetServiceTests {
+
+    private static final String TENANT = "budget-tests";
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 10);
+
+    @Autowired
+    private ExpenseService expenseService;
+    @Autowired
+    private ExpenseBudgetService budgetService;
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired
+    private ApplicationEvents events;
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.set(TENANT);
+        BudgetRequestDTO budget = new BudgetRequestDTO();
+        budget.setMonthlyLimit(new BigDecimal("100.00"));
+        budget.setWarnPercent(80);
+        budgetService.saveBudget("Food", budget);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbc.update("DELETE FROM expenses WHERE tenant_id = ?", TENANT);
+        jdbc.update("DELETE FROM expense_monthly_rollups WHERE tenant_id = ?", TENANT);
+        jdbc.update("DELETE FROM expense_data_versions WHERE tenant_id = ?", TENANT);
+        jdbc.update("DELETE FROM expense_budgets WHERE tenant_id = ?", TENANT);
+        TenantContext.clear();
+    }
+
+    @Test
+    void eachTransitionFiresOnce() {
+        add("Food", "50.00"); // 50: OK
+        add("Food", "35.00"); // 85: WARNING
+        add("Food", "5.00"); // 90: still WARNING
+        add("Travel", "500.00"); // No budget
+        ExpenseResponseDTO big = add("Food", "20.00"); // 110: EXCEEDED
+        add("Food", "1.00"); // 111: still EXCEEDED
+
+        assertThat(transitions()).containsExactly("OK->WARNING", "WARNING->EXCEEDED");
+
+        expenseService.deleteExpense(big.getId()); // 91: back to WARNING
+        assertThat(transitions()).containsExactly("OK->WARNING", "WARNING->EXCEEDED", "EXCEEDED->WARNING");
+    }
+
+    private List<String> transitions() {
+        return events.stream(BudgetStatusChangedEvent.class)
+                .filter(event -> TENANT.equals(event.getTenantId()))
+                .map(event -> event.getPreviousStatus() + "->" + event.getBudget().getStatus())
+                .toList();
+    }
+
+    private ExpenseResponseDTO add(String category, String amount) {
+        ExpenseRequestDTO request = new ExpenseRequestDTO();
+        request.setDescription("Budget " + amount);
+        request.setAmount(new BigDecimal(amount));
+        request.setCategory(category);
+        request.setExpenseDate(DAY);
+        return expenseService.addExpense(request);
+    }
+}
@@ -0,0 +1,198 @@
+package com.project.Expenzor.service;
+
+import com.project.Expenzor.dto.BulkImportErrorDTO;
+import com.project.Expenzor.dto.BulkImportResultDTO;
+import com.project.Expenzor.dto.ExpenseRequestDTO;
+import com.project.Expenzor.dto.ExpenseResponseDTO;
+import com.project.Expenzor.tenant.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+// Export -> import round trips (including fields that need CSV quoting) and how
+// broken rows are reported
+@SpringBootTest
+class ExpenseBulkServiceTests {
+
+    private static final String SOURCE = "bulk-source";
+    private static final String TARGET = "bulk-target";
+    private static final String REFUSING_CONSTRAINT = "bulk_tests_refused_description";
+
+    @Autowired
+    private ExpenseBulkService bulkService;
+    @Autowired
+    private ExpenseService expenseService;
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @AfterEach
+    void cleanUp() {
+        jdbc.update("DELETE FROM expenses WHERE tenant_id IN (?, ?)", SOURCE, TARGET);
+        jdbc.update("DELETE FROM expense_monthly_rollups WHERE tenant_id IN (?, ?)", SOURCE, TARGET);
+        TenantContext.clear();
+    }
+
+    @Test
+    void csvExportImportsBackUnchanged() throws IOException {
+        roundTrip(ExpenseBulkService.FORMAT_CSV);
+    }
+
+    @Test
+    void ndjsonExportImportsBackUnchanged() throws IOException {
+        roundTrip(ExpenseBulkService.FORMAT_NDJSON);
+    }
+
+    private void roundTrip(String format) throws IOException {
+        TenantContext.set(SOURCE);
+        add("Groceries, weekly", "Food", "54.20", LocalDate.of(2025, 4, 1));
+        add("Rent\nApril \"flat 2\"", "Housing", "1200.00", LocalDate.of(2025, 4, 2));
+        add("Taxi\r\nairport", "Travel", "38.75", LocalDate.of(2025, 4, 3));
+        add("  padded  ", "Misc", "0.01", LocalDate.of(2025, 4, 4));
+        List<ExpenseResponseDTO> exported = listAll();
+        byte[] file = export(format);
+
+        TenantContext.set(TARGET);
+        BulkImportResultDTO result = bulkService.importExpenses(new ByteArrayInputStream(file), format);
+        assertThat(result.getErrors()).isEmpty();
+        assertThat(result.getImported()).isEqualTo(4);
+        assertThat(result.getTotalRows()).isEqualTo(4);
+
+        List<ExpenseResponseDTO> imported = listAll();
+        assertThat(imported).extracting(ExpenseResponseDTO::getCategory, ExpenseResponseDTO::getAmount,
+                        ExpenseResponseDTO::getExpenseDate)
+                .containsExactlyElementsOf(exported.stream()
+                        .map(e -> tuple(e.getCategory(), e.getAmount(), e.getExpenseDate()))
+                        .toList());
+        assertThat(imported).extracting(ExpenseResponseDTO::getDescription)
+                .containsExactlyElementsOf(exported.stream().map(ExpenseResponseDTO::getDescription).toList());
+    }
+
+    @Test
+    void csvErrorsReportTheLineTheRowStartsOn() throws IOException {
+        String csv = """
+                description,amount,category,expenseDate
+                "two
+                lines",10.00,Food,2025-05-01
+                bad amount,abc,Food,2025-05-02
+
+                ,5.00,Food,2025-05-03
+                "three
+                lines
+                here",7.50,Food,2025-05-04
+                """;
+        TenantContext.set(TARGET);
+        BulkImportResultDTO result = importString(csv, ExpenseBulkService.FORMAT_CSV);
+
+        assertThat(result.getTotalRows()).isEqualTo(4);
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting(BulkImportErrorDTO::getLine).containsExactly(4L, 6L);
+        assertThat(listAll()).extracting(ExpenseResponseDTO::getDescription)
+                .containsExactlyInAnyOrder("two\nlines", "three\nlines\nhere");
+    }
+
+    @Test
+    void ndjsonNullRowIsARowError() throws IOException {
+        String ndjson = """
+                {"description":"ok","amount":1.00,"category":"Food","expenseDate":"2025-05-01"}
+                null
+
+                {"description":"broken",
+                {"description":"ok too","amount":2.00,"category":"Food","expenseDate":"2025-05-02"}
+                """;
+        TenantContext.set(TARGET);
+        BulkImportResultDTO result = importString(ndjson, ExpenseBulkService.FORMAT_NDJSON);
+
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getFailed()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting(BulkImportErrorDTO::getLine).containsExactly(2L, 4L);
+    }
+
+    @Test
+    void databaseRejectionFailsOnlyTheOffendingRows() throws IOException {
+        // A constraint the request validation knows nothing about: the chunk fails in the
+        // database and is written again row by row
+        jdbc.execute("ALTER TABLE expenses ADD CONSTRAINT " + REFUSING_CONSTRAINT
+                + " CHECK (description <> 'refused by the database')");
+        try {
+            StringBuilder ndjson = new StringBuilder();
+            for (int i = 1; i <= 5; i++) {
+                String description = i == 3 ? "refused by the database" : "row " + i;
+                ndjson.append("{\"description\":\"").append(description).append("\",\"amount\":1.00,")
+                        .append("\"category\":\"Food\",\"expenseDate\":\"2025-06-0").append(i).append("\"}\n");
+            }
+            TenantContext.set(TARGET);
+            BulkImportResultDTO result = importString(ndjson.toString(), ExpenseBulkService.FORMAT_NDJSON);
+
+            assertThat(result.getImported()).isEqualTo(4);
+            assertThat(result.getFailed()).isEqualTo(1);
+            assertThat(result.getErrors()).singleElement().satisfies(error -> {
+                assertThat(error.getLine()).isEqualTo(3L);
+                assertThat(error.getMessage()).startsWith("Row was not saved");
+            });
+            assertThat(listAll()).extracting(ExpenseResponseDTO::getDescription)
+                    .containsExactlyInAnyOrder("row 1", "row 2", "row 4", "row 5");
+            // The failed chunk's rollup deltas rolled back with it
+            assertThat(expenseService.getTotalOverallExpense()).isEqualByComparingTo("4.00");
+        } finally {
+            jdbc.execute("ALTER TABLE expenses DROP CONSTRAINT " + REFUSING_CONSTRAINT);
+        }
+    }
+
+    @Test
+    void oversizedFieldsAreRowErrors() throws IOException {
+        // Over VARCHAR(50) and NUMERIC(10, 2): refused by validation before the database sees them
+        String ndjson = """
+                {"description":"ok","amount":1.00,"category":"Food","expenseDate":"2025-06-01"}
+                {"description":"long category","amount":1.00,"category":"%s","expenseDate":"2025-06-02"}
+                {"description":"huge amount","amount":123456789.00,"category":"Food","expenseDate":"2025-06-03"}
+                {"description":"ok too","amount":2.00,"category":"Food","expenseDate":"2025-06-04"}
+                """.formatted("C".repeat(60));
+        TenantContext.set(TARGET);
+        BulkImportResultDTO result = importString(ndjson, ExpenseBulkService.FORMAT_NDJSON);
+
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting(BulkImportErrorDTO::getLine, BulkImportErrorDTO::getMessage)
+                .containsExactly(tuple(2L, "Category can be at most 50 characters"),
+                        tuple(3L, "Amount can have at most 8 digits before and 2 after the decimal point"));
+        assertThat(expenseService.getTotalOverallExpense()).isEqualByComparingTo("3.00");
+    }
+
+    private void add(String description, String category, String amount, LocalDate date) {
+        ExpenseRequestDTO request = new ExpenseRequestDTO();
+        request.setDescription(description);
+        request.setAmount(new BigDecimal(amount));
+        request.setCategory(category);
+        request.setExpenseDate(date);
+        expenseService.addExpense(request);
+    }
+
+    private byte[] export(String format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bulkService.exportExpenses(null, format, out);
+        return out.toByteArray();
+    }
+
+    private BulkImportResultDTO importString(String content, String format) throws IOException {
+        return bulkService.importExpenses(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), format);
+    }
+
+    private List<ExpenseResponseDTO> listAll() {
+        List<ExpenseResponseDTO> expenses = new ArrayList<>();
+        expenseService.streamExpenses(null, expenses::add);
+        return expenses;
+    }
+}
@@ -0,0 +1,92 @@
+package com.project.Expenzor.service;
+
+import com.project.Expenzor.dto.ExpensePageDTO;
+import com.project.Expenzor.dto.ExpenseRequestDTO;
+import com.project.Expenzor.dto.ExpenseResponseDTO;
+import com.project.Expenzor.tenant.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Keyset paging over rows that share an expense date: the id tie-break must neither
+// skip nor repeat rows when a page boundary falls inside a run of equal dates
+@SpringBootTest
+class ExpenseKeysetPageTests {
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    private final List<ExpenseResponseDTO> created = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        TenantContext.set("keyset-tests");
+        LocalDate[] dates = {
+                LocalDate.of(2025, 3, 10), LocalDate.of(2025, 3, 10), LocalDate.of(2025, 3, 10),
+                LocalDate.of(2025, 3, 9), LocalDate.of(2025, 3, 10), LocalDate.of(2025, 3, 9),
+                LocalDate.of(2025, 3, 11) };
+        for (LocalDate date : dates) {
+            created.add(expenseService.addExpense(request(date)));
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        created.forEach(expense -> expenseService.deleteExpense(expense.getId()));
+        TenantContext.clear();
+    }
+
+    @Test
+    void pagesAcrossEqualDatesInKeysetOrder() {
+        for (int size = 1; size <= created.size() + 1; size++) {
+            List<Long> seen = new ArrayList<>();
+            String cursor = null;
+            do {
+                ExpensePageDTO page = expenseService.getExpensePage(null, cursor, size);
+                assertThat(page.getItems()).hasSizeLessThanOrEqualTo(size);
+                page.getItems().forEach(item -> seen.add(item.getId()));
+                cursor = page.getNextCursor();
+            } while (cursor != null);
+
+            List<Long> expected = created.stream()
+                    .sorted(Comparator.comparing(ExpenseResponseDTO::getExpenseDate)
+                            .thenComparing(ExpenseResponseDTO::getId).reversed())
+                    .map(ExpenseResponseDTO::getId)
+                    .toList();
+            assertThat(seen).as("page size %d", size).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        ExpensePageDTO page = expenseService.getExpensePage(null, null, created.size());
+        assertThat(page.getItems()).hasSize(created.size());
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void rejectsMalformedCursor() {
+        assertThatThrownBy(() -> expenseService.getExpensePage(null, "not-a-cursor", 2))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static ExpenseRequestDTO request(LocalDate date) {
+        ExpenseRequestDTO request = new ExpenseRequestDTO();
+        request.setDescription("Keyset " + date);
+        request.setAmount(new BigDecimal("10.00"));
+        request.setCategory("Food");
+        request.setExpenseDate(date);
+        return request;
+    }
+}
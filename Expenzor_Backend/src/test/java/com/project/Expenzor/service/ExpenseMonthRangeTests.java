@@ -0,0 +1,37 @@
+package com.project.Expenzor.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.YearMonth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Month ranges are zero-filled month by month, so they are capped at ten years
+@SpringBootTest
+class ExpenseMonthRangeTests {
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Test
+    void acceptsUpToTenYears() {
+        assertThat(expenseService.getMonthlyTotalsBetween(YearMonth.of(2016, 1), YearMonth.of(2025, 12))).hasSize(120);
+        assertThat(expenseService.getPreviousMonthsComparison(120)).hasSize(120);
+        assertThat(expenseService.getDashboard(120).getMonthlyComparison()).hasSize(120);
+    }
+
+    @Test
+    void rejectsLongerRanges() {
+        assertThatThrownBy(() -> expenseService.getMonthlyTotalsBetween(YearMonth.of(1, 1), YearMonth.of(9999, 12)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> expenseService.getMonthlyCategoryBreakdownBetween(YearMonth.of(2015, 12), YearMonth.of(2025, 12)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> expenseService.getPreviousMonthsComparison(121))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> expenseService.getDashboard(Integer.MAX_VALUE))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,127 @@
+package com.project.Expenzor.service;
+
+import com.project.Expenzor.dto.RecurringExpenseRequestDTO;
+import com.project.Expenzor.dto.RecurringExpenseResponseDTO;
+import com.project.Expenzor.model.RecurringExpense;
+import com.project.Expenzor.tenant.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Materialization is idempotent: once a rule's due occurrences are written, running the
+// job again (as the schedule does every interval) writes nothing. A rule that can't be
+// materialized is stopped without holding up the rules behind it, and new rules can't
+// start so far back that catching up would mean years of occurrences.
+@SpringBootTest
+class ExpenseRecurringServiceTests {
+
+    private static final String TENANT = "recurring-tests";
+    private static final String BROKEN_TENANT = "recurring-tests-broken";
+
+    @Autowired
+    private ExpenseRecurringService recurringService;
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setTenant() {
+        TenantContext.set(TENANT);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        for (String tenantId : List.of(TENANT, BROKEN_TENANT)) {
+            jdbc.update("DELETE FROM recurring_expenses WHERE tenant_id = ?", tenantId);
+            jdbc.update("DELETE FROM expenses WHERE tenant_id = ?", tenantId);
+            jdbc.update("DELETE FROM expense_monthly_rollups WHERE tenant_id = ?", tenantId);
+            jdbc.update("DELETE FROM expense_data_versions WHERE tenant_id = ?", tenantId);
+        }
+        TenantContext.clear();
+    }
+
+    @Test
+    void secondRunWritesNothing() {
+        LocalDate today = LocalDate.now();
+        RecurringExpenseResponseDTO rule = recurringService.createRecurringExpense(daily(today.minusDays(4)));
+
+        // The scheduled run may have picked the rule up already; either way all five are written once
+        recurringService.materializeDue();
+        assertThat(occurrenceDates()).containsExactly(today.minusDays(4), today.minusDays(3), today.minusDays(2),
+                today.minusDays(1), today);
+
+        assertThat(recurringService.materializeDue()).isZero();
+        assertThat(occurrenceDates()).hasSize(5);
+        assertThat(recurringService.getRecurringExpenses()).singleElement().satisfies(stored -> {
+            assertThat(stored.getId()).isEqualTo(rule.getId());
+            assertThat(stored.getOccurrenceCount()).isEqualTo(5);
+            assertThat(stored.getNextDueDate()).isEqualTo(today.plusDays(1));
+        });
+    }
+
+    @Test
+    void brokenRuleIsStoppedWithoutHoldingUpTheOthers() {
+        LocalDate today = LocalDate.now();
+        recurringService.createRecurringExpense(daily(today.minusDays(2)));
+        // Due first, and its second occurrence lies past the year 999999999: stored before
+        // intervals were capped. The id comes from the sequence, so Hibernate never hands it out.
+        Long brokenId = jdbc.queryForObject("SELECT NEXT VALUE FOR recurring_expenses_seq", Long.class);
+        jdbc.update("""
+                INSERT INTO recurring_expenses (id, tenant_id, description, amount, category, frequency, interval_count,
+                                                start_date, next_due_date, occurrence_count)
+                VALUES (?, ?, 'Broken', 1.00, 'Food', 'YEARLY', 1000000000, ?, ?, 0)""",
+                brokenId, BROKEN_TENANT, today.minusDays(10), today.minusDays(10));
+
+        recurringService.materializeDue();
+
+        assertThat(occurrenceDates()).containsExactly(today.minusDays(2), today.minusDays(1), today);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM expenses WHERE tenant_id = ?", Long.class, BROKEN_TENANT))
+                .isZero();
+        assertThat(jdbc.queryForMap("SELECT next_due_date, occurrence_count FROM recurring_expenses WHERE id = ?",
+                brokenId)).containsEntry("next_due_date", null).containsEntry("occurrence_count", 0L);
+        assertThat(recurringService.materializeDue()).isZero();
+    }
+
+    @Test
+    void startDateIsAtMostAYearBack() {
+        LocalDate today = LocalDate.now();
+        assertThatThrownBy(() -> recurringService.createRecurringExpense(daily(LocalDate.of(1, 1, 1))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("startDate");
+        assertThatThrownBy(() -> recurringService.createRecurringExpense(daily(today.minusYears(1).minusDays(1))))
+                .isInstanceOf(IllegalArgumentException.class);
+        RecurringExpenseRequestDTO endless = daily(today);
+        endless.setEndDate(today.plusYears(100).plusDays(1));
+        assertThatThrownBy(() -> recurringService.createRecurringExpense(endless))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("endDate");
+
+        RecurringExpenseRequestDTO yearBack = daily(today.minusYears(1));
+        yearBack.setFrequency(RecurringExpense.Frequency.MONTHLY);
+        assertThat(recurringService.createRecurringExpense(yearBack).getNextDueDate()).isEqualTo(today.minusYears(1));
+    }
+
+    private static RecurringExpenseRequestDTO daily(LocalDate startDate) {
+        RecurringExpenseRequestDTO request = new RecurringExpenseRequestDTO();
+        request.setDescription("Coffee");
+        request.setAmount(new BigDecimal("3.50"));
+        request.setCategory("Food");
+        request.setFrequency(RecurringExpense.Frequency.DAILY);
+        request.setStartDate(startDate);
+        return request;
+    }
+
+    private List<LocalDate> occurrenceDates() {
+        return jdbc.queryForList("SELECT expense_date FROM expenses WHERE tenant_id = ? ORDER BY expense_date",
+                LocalDate.class, TENANT);
+    }
+}
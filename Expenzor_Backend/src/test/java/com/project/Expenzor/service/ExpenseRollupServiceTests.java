@@ -0,0 +1,167 @@
+package com.project.Expenzor.service;
+
+import com.project.Expenzor.dto.ExpenseRequestDTO;
+import com.project.Expenzor.dto.ExpenseResponseDTO;
+import com.project.Expenzor.tenant.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The rollup buckets must always equal a fresh aggregation of the expenses: after
+// add/update/delete, after a reconcile of a corrupted table, and with writes racing a
+// reconcile
+@SpringBootTest
+class ExpenseRollupServiceTests {
+
+    private static final String TENANT = "rollup-tests";
+
+    @Autowired
+    private ExpenseService expenseService;
+    @Autowired
+    private ExpenseRollupService rollupService;
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private final List<Long> created = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void setTenant() {
+        TenantContext.set(TENANT);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        created.forEach(expenseService::deleteExpense);
+        TenantContext.clear();
+    }
+
+    @Test
+    void bucketsFollowAddUpdateAndDelete() {
+        ExpenseResponseDTO lunch = add("Food", LocalDate.of(2025, 1, 15), "12.50");
+        ExpenseResponseDTO dinner = add("Food", LocalDate.of(2025, 1, 20), "30.00");
+        add("Travel", LocalDate.of(2025, 2, 3), "100.00");
+        assertThat(buckets()).isEqualTo(aggregate());
+        assertThat(buckets()).containsEntry("2025-1-Food", "42.50/2");
+
+        // Moves to another month and category: out of the old bucket, into the new one
+        expenseService.updateExpense(dinner.getId(), request("Travel", LocalDate.of(2025, 2, 28), "45.00"));
+        assertThat(buckets()).isEqualTo(aggregate());
+        assertThat(buckets()).containsEntry("2025-1-Food", "12.50/1").containsEntry("2025-2-Travel", "145.00/2");
+
+        // The last expense of a bucket takes the bucket with it
+        expenseService.deleteExpense(lunch.getId());
+        created.remove(lunch.getId());
+        assertThat(buckets()).isEqualTo(aggregate()).doesNotContainKey("2025-1-Food");
+
+        assertThat(rollupService.rebuild()).isZero();
+    }
+
+    @Test
+    void rebuildCorrectsOnlyDriftedBuckets() {
+        add("Food", LocalDate.of(2024, 5, 1), "10.00");
+        add("Food", LocalDate.of(2024, 5, 2), "20.00");
+        add("Rent", LocalDate.of(2024, 5, 1), "500.00");
+        add("Rent", LocalDate.of(2024, 6, 1), "500.00");
+
+        jdbc.update("UPDATE expense_monthly_rollups SET total_amount = 999, expense_count = 7 "
+                + "WHERE tenant_id = ? AND period_year = 2024 AND period_month = 5 AND category = 'Food'", TENANT);
+        jdbc.update("DELETE FROM expense_monthly_rollups "
+                + "WHERE tenant_id = ? AND period_year = 2024 AND period_month = 6", TENANT);
+        jdbc.update("INSERT INTO expense_monthly_rollups (tenant_id, period_year, period_month, category, total_amount, expense_count) "
+                + "VALUES (?, 2024, 7, 'Ghost', 5, 1)", TENANT);
+
+        assertThat(rollupService.rebuild(YearMonth.of(2024, 6), YearMonth.of(2024, 7))).isEqualTo(2);
+        assertThat(buckets()).containsEntry("2024-6-Rent", "500.00/1").doesNotContainKey("2024-7-Ghost")
+                .containsEntry("2024-5-Food", "999.00/7"); // Outside the range: untouched
+
+        assertThat(rollupService.rebuild()).isEqualTo(1);
+        assertThat(buckets()).isEqualTo(aggregate()).containsEntry("2024-5-Food", "30.00/2");
+        assertThat(rollupService.rebuild()).isZero();
+    }
+
+    @Test
+    void rebuildDuringWritesLosesNothing() throws Exception {
+        ExecutorService writers = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for (int w = 0; w < 2; w++) {
+                String category = "Writer" + w;
+                done.add(writers.submit(() -> {
+                    TenantContext.set(TENANT);
+                    try {
+                        for (int i = 0; i < 60; i++) {
+                            add(category, LocalDate.of(2023, 1 + i % 3, 1 + i % 28), "1.25");
+                        }
+                    } finally {
+                        TenantContext.clear();
+                    }
+                }));
+            }
+            while (done.stream().anyMatch(future -> !future.isDone())) {
+                rollupService.rebuild();
+            }
+            for (Future<?> future : done) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            writers.shutdown();
+        }
+        assertThat(buckets()).isEqualTo(aggregate());
+        assertThat(buckets()).containsEntry("2023-1-Writer0", "25.00/20");
+        assertThat(rollupService.rebuild()).isZero();
+    }
+
+    private ExpenseResponseDTO add(String category, LocalDate date, String amount) {
+        ExpenseResponseDTO expense = expenseService.addExpense(request(category, date, amount));
+        created.add(expense.getId());
+        return expense;
+    }
+
+    private static ExpenseRequestDTO request(String category, LocalDate date, String amount) {
+        ExpenseRequestDTO request = new ExpenseRequestDTO();
+        request.setDescription(category + " " + date);
+        request.setAmount(new BigDecimal(amount));
+        request.setCategory(category);
+        request.setExpenseDate(date);
+        return request;
+    }
+
+    // "year-month-category" -> "total/count"
+    private Map<String, String> buckets() {
+        return toMap(jdbc.queryForList("SELECT period_year AS y, period_month AS m, category AS c, "
+                + "total_amount AS t, expense_count AS n FROM expense_monthly_rollups WHERE tenant_id = ?", TENANT));
+    }
+
+    private Map<String, String> aggregate() {
+        return toMap(jdbc.queryForList("SELECT EXTRACT(YEAR FROM expense_date) AS y, EXTRACT(MONTH FROM expense_date) AS m, "
+                + "category AS c, SUM(amount) AS t, COUNT(*) AS n FROM expenses WHERE tenant_id = ? "
+                + "GROUP BY EXTRACT(YEAR FROM expense_date), EXTRACT(MONTH FROM expense_date), category", TENANT));
+    }
+
+    private static Map<String, String> toMap(List<Map<String, Object>> rows) {
+        Map<String, String> buckets = new TreeMap<>();
+        for (Map<String, Object> row : rows) {
+            buckets.put(((Number) row.get("y")).intValue() + "-" + ((Number) row.get("m")).intValue() + "-" + row.get("c"),
+                    ((BigDecimal) row.get("t")).setScale(2) + "/" + ((Number) row.get("n")).longValue());
+        }
+        return buckets;
+    }
+}
@@ -0,0 +1,230 @@
+package com.project.Expenzor.sse;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.Expenzor.event.ExpenseChangedEvent;
+import com.project.Expenzor.event.ExpenseSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// Resuming with Last-Event-ID from inside the history ring, from before it (RESYNC),
+// and a subscriber that falls behind its buffer (one COALESCED message, same net deltas).
+// Senders run only when the test steps them, so "slow" is deterministic.
+class ExpenseChangeFeedTests {
+
+    private static final String TENANT = "feed-tests";
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final ManualExecutor senders = new ManualExecutor();
+
+    @Test
+    void resumesRightAfterTheLastEventId() throws Exception {
+        Client client = new Client(5, 100);
+        MvcResult live = client.subscribe(null);
+        for (long id = 1; id <= 3; id++) {
+            client.feed.onExpenseChanged(created(id, "Food", LocalDate.of(2025, 1, 10), "1.00"));
+        }
+        senders.runAll();
+        List<Event> seen = events(live);
+        assertThat(seen).extracting(Event::type).containsExactly("CREATED", "CREATED", "CREATED");
+
+        MvcResult resumed = client.subscribe(seen.get(0).id());
+        senders.runAll();
+        assertThat(events(resumed)).extracting(Event::id).containsExactly(seen.get(1).id(), seen.get(2).id());
+
+        client.feed.onExpenseChanged(created(4, "Food", LocalDate.of(2025, 1, 11), "1.00"));
+        senders.runAll();
+        assertThat(events(resumed)).hasSize(3);
+        assertThat(events(resumed).get(2).data().get("expenseId").asLong()).isEqualTo(4);
+    }
+
+    @Test
+    void resumingFromBeforeTheRingAsksForAResync() throws Exception {
+        Client client = new Client(5, 100);
+        MvcResult live = client.subscribe(null);
+        for (long id = 1; id <= 7; id++) {
+            client.feed.onExpenseChanged(created(id, "Food", LocalDate.of(2025, 1, 10), "1.00"));
+        }
+        senders.runAll();
+        List<Event> seen = events(live);
+        assertThat(seen).hasSize(7);
+
+        // Events 3..7 are still in the ring: resuming after 2 replays them
+        MvcResult fromTwo = client.subscribe(seen.get(1).id());
+        // Event 2 itself is gone: resuming after 1 would skip it
+        MvcResult fromOne = client.subscribe(seen.get(0).id());
+        MvcResult unknown = client.subscribe("before-a-restart-1");
+        senders.runAll();
+
+        assertThat(events(fromTwo)).extracting(Event::id).containsExactlyElementsOf(seen.subList(2, 7).stream().map(Event::id).toList());
+        for (MvcResult resync : List.of(fromOne, unknown)) {
+            List<Event> events = events(resync);
+            assertThat(events).extracting(Event::type).containsExactly("RESYNC");
+            assertThat(events.get(0).data().get("resyncAll").asBoolean()).isTrue();
+        }
+    }
+
+    @Test
+    void subscriberBehindItsBufferGetsTheNetDeltas() throws Exception {
+        Client client = new Client(100, 3);
+        MvcResult slow = client.subscribe(null);
+        ExpenseSnapshot lunch = snapshot("Food", LocalDate.of(2025, 1, 10), "10.00");
+        ExpenseSnapshot snack = snapshot("Food", LocalDate.of(2025, 1, 12), "5.00");
+        ExpenseSnapshot trip = snapshot("Travel", LocalDate.of(2025, 2, 3), "10.00");
+        client.feed.onExpenseChanged(new ExpenseChangedEvent(ExpenseChangedEvent.Type.CREATED, TENANT, 1L, null, lunch));
+        client.feed.onExpenseChanged(new ExpenseChangedEvent(ExpenseChangedEvent.Type.CREATED, TENANT, 2L, null, snack));
+        client.feed.onExpenseChanged(new ExpenseChangedEvent(ExpenseChangedEvent.Type.UPDATED, TENANT, 1L, lunch, trip));
+        client.feed.onExpenseChanged(new ExpenseChangedEvent(ExpenseChangedEvent.Type.DELETED, TENANT, 2L, snack, null));
+        client.feed.onExpenseChanged(created(3, "Rent", LocalDate.of(2025, 3, 1), "7.00"));
+        senders.runAll();
+
+        List<Event> events = events(slow);
+        assertThat(events).extracting(Event::type).containsExactly("COALESCED", "CREATED");
+        JsonNode merged = events.get(0).data();
+        // Food in January nets out to nothing; only the move to Travel in February is left
+        assertThat(merged.get("categoryTotals")).hasSize(1);
+        assertThat(merged.get("categoryTotals").get(0).get("month").asText()).isEqualTo("2025-02");
+        assertThat(merged.get("categoryTotals").get(0).get("category").asText()).isEqualTo("Travel");
+        assertThat(merged.get("categoryTotals").get(0).get("amountDelta").decimalValue()).isEqualByComparingTo("10.00");
+        assertThat(merged.get("categoryTotals").get(0).get("countDelta").asLong()).isEqualTo(1);
+        assertThat(merged.get("monthTotals")).hasSize(1);
+        assertThat(merged.get("monthTotals").get(0).get("month").asText()).isEqualTo("2025-02");
+        assertThat(events.get(1).data().get("expenseId").asLong()).isEqualTo(3);
+    }
+
+    @Test
+    void rejectsEmptyHistoryAndBuffer() {
+        assertThatThrownBy(() -> new ExpenseChangeFeed(new SimpleMeterRegistry(), 0, 256, Duration.ofMinutes(30), senders))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("history-size");
+        assertThatThrownBy(() -> new ExpenseChangeFeed(new SimpleMeterRegistry(), 100, -1, Duration.ofMinutes(30), senders))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("client-buffer");
+    }
+
+    // --- Helpers ---
+
+    private final class Client {
+        final ExpenseChangeFeed feed;
+        final MockMvc mockMvc;
+
+        Client(int historySize, int bufferSize) {
+            feed = new ExpenseChangeFeed(new SimpleMeterRegistry(), historySize, bufferSize, Duration.ofMinutes(30), senders);
+            mockMvc = MockMvcBuilders.standaloneSetup(new EventsController(feed)).build();
+        }
+
+        MvcResult subscribe(String lastEventId) throws Exception {
+            return mockMvc.perform(lastEventId == null ? get("/events") : get("/events").header("Last-Event-ID", lastEventId))
+                    .andReturn();
+        }
+    }
+
+    @RestController
+    static class EventsController {
+        private final ExpenseChangeFeed feed;
+
+        EventsController(ExpenseChangeFeed feed) {
+            this.feed = feed;
+        }
+
+        @GetMapping("/events")
+        SseEmitter events(@RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+            return feed.subscribe(TENANT, lastEventId);
+        }
+    }
+
+    private record Event(String id, String type, JsonNode data) {
+    }
+
+    // Parses what was written to the response so far, skipping heartbeat comments
+    private static List<Event> events(MvcResult result) throws Exception {
+        List<Event> events = new ArrayList<>();
+        for (String block : result.getResponse().getContentAsString().split("\n\n")) {
+            String id = null;
+            String type = null;
+            JsonNode data = null;
+            for (String line : block.split("\n")) {
+                if (line.startsWith("id:")) {
+                    id = line.substring(3);
+                } else if (line.startsWith("event:")) {
+                    type = line.substring(6);
+                } else if (line.startsWith("data:")) {
+                    data = JSON.readTree(line.substring(5));
+                }
+            }
+            if (id != null) {
+                events.add(new Event(id, type, data));
+            }
+        }
+        return events;
+    }
+
+    private static ExpenseChangedEvent created(long id, String category, LocalDate date, String amount) {
+        return new ExpenseChangedEvent(ExpenseChangedEvent.Type.CREATED, TENANT, id, null, snapshot(category, date, amount));
+    }
+
+    private static ExpenseSnapshot snapshot(String category, LocalDate date, String amount) {
+        return new ExpenseSnapshot(date, category, new BigDecimal(amount));
+    }
+
+    private static final class ManualExecutor extends AbstractExecutorService {
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+        void runAll() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                task.run();
+            }
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return List.of();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+}
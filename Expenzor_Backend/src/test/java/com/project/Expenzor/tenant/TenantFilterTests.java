@@ -0,0 +1,69 @@
+package com.project.Expenzor.tenant;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// X-Tenant-ID is honoured only from a trusted proxy; anyone else gets a 403 rather
+// than another user's data, and there is no query parameter to slip past the check
+class TenantFilterTests {
+
+    private final TenantFilter filter = new TenantFilter(Set.of("10.0.0.5"));
+
+    @Test
+    void trustedProxySetsTheTenant() throws Exception {
+        MockHttpServletRequest request = request("10.0.0.5");
+        request.addHeader(TenantFilter.TENANT_HEADER, "alice");
+        assertThat(tenantSeenBy(request, new MockHttpServletResponse())).isEqualTo("alice");
+    }
+
+    @Test
+    void headerFromAnyoneElseIsRejected() throws Exception {
+        MockHttpServletRequest request = request("203.0.113.9");
+        request.addHeader(TenantFilter.TENANT_HEADER, "alice");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertThat(tenantSeenBy(request, response)).isNull();
+        assertThat(response.getStatus()).isEqualTo(403);
+    }
+
+    @Test
+    void noHeaderActsForTheDefaultTenant() throws Exception {
+        MockHttpServletRequest request = request("203.0.113.9");
+        request.setRequestURI("/api/expense/events");
+        request.addParameter("tenant", "alice");
+        assertThat(tenantSeenBy(request, new MockHttpServletResponse())).isEqualTo(TenantContext.DEFAULT_TENANT);
+    }
+
+    @Test
+    void malformedTenantIsABadRequest() throws Exception {
+        MockHttpServletRequest request = request("10.0.0.5");
+        request.addHeader(TenantFilter.TENANT_HEADER, "../alice");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertThat(tenantSeenBy(request, response)).isNull();
+        assertThat(response.getStatus()).isEqualTo(400);
+    }
+
+    private static MockHttpServletRequest request(String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/expense/dashboard");
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+
+    // The tenant the rest of the chain ran for, or null when the filter stopped the request
+    private String tenantSeenBy(MockHttpServletRequest request, MockHttpServletResponse response) throws Exception {
+        AtomicReference<String> seen = new AtomicReference<>();
+        filter.doFilter(request, response, new MockFilterChain() {
+            @Override
+            public void doFilter(jakarta.servlet.ServletRequest req, jakarta.servlet.ServletResponse res) {
+                seen.set(TenantContext.current());
+            }
+        });
+        return seen.get();
+    }
+}